@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request and resident memory for the default startup, the fast-startup profile
+# and fast-startup with the AppCDS archive. Build first with: ./mvnw -Pappcds package
+# Usage: scripts/startup-benchmark.sh [runs] [port]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${2:-8080}
+TARGET=$(cd "$(dirname "$0")/../target" && pwd)
+JAR=$(ls "$TARGET"/reactor-samples-*.jar | grep -v -- '-exec.jar' | head -1)
+CLASSPATH="$JAR:$(cat "$TARGET/appcds.dependencies")"
+ARCHIVE="$TARGET/app-cds.jsa"
+MAIN=io.jay.reactorsamples.ReactorSamplesApplication
+
+now_ms() {
+  date +%s%3N
+}
+
+# any HTTP status (404 included) means the server accepted and answered a request
+measure() {
+  local label=$1
+  shift
+  local start pid status elapsed rss
+  start=$(now_ms)
+  java "$@" -Dserver.port="$PORT" -cp "$CLASSPATH" "$MAIN" > /dev/null 2>&1 &
+  pid=$!
+  status=000
+  until [ "$status" != "000" ]; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "$label: application exited before serving a request" >&2
+      return 1
+    fi
+    sleep 0.02
+    status=$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/" || true)
+  done
+  elapsed=$(( $(now_ms) - start ))
+  rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  printf '%-28s %8d ms %8d KB\n' "$label" "$elapsed" "$rss"
+}
+
+printf '%-28s %11s %11s\n' mode first-request rss
+for run in $(seq "$RUNS"); do
+  measure default
+  measure fast-startup -Dspring.profiles.active=fast-startup
+  if [ -f "$ARCHIVE" ]; then
+    measure fast-startup+appcds -Dspring.profiles.active=fast-startup -XX:SharedArchiveFile="$ARCHIVE"
+  fi
+done
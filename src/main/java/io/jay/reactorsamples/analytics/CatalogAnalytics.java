@@ -0,0 +1,214 @@
+package io.jay.reactorsamples.analytics;
+
+import io.jay.reactorsamples.catalog.ColumnarMovieInfoStore;
+import io.jay.reactorsamples.catalog.ReviewAggregateStore;
+import io.jay.reactorsamples.domain.Revenue;
+import io.jay.reactorsamples.service.MovieInfoService;
+import io.jay.reactorsamples.service.RevenueService;
+import io.jay.reactorsamples.service.ReviewService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Group-by aggregates (movie count, review count, average rating, total budget and box office)
+ * by year and by cast member over the whole catalog. Ratings and revenue are snapshotted into
+ * primitive columns aligned with the ColumnarMovieInfoStore rows, and each query is a fork-join
+ * parallel scan where every chunk aggregates into its own arrays indexed by group before merging.
+ */
+public class CatalogAnalytics {
+
+    private static final int MIN_CHUNK_ROWS = 4096;
+
+    private final ColumnarMovieInfoStore catalog;
+    private final int rows;
+    private final long[] reviewCounts;
+    private final double[] ratingSums;
+    private final double[] budgets;
+    private final double[] boxOffices;
+    private final ForkJoinPool pool;
+
+    public CatalogAnalytics(ColumnarMovieInfoStore catalog, ReviewAggregateStore reviews, Map<Long, Revenue> revenues) {
+        this(catalog, reviews, revenues, ForkJoinPool.commonPool());
+    }
+
+    public CatalogAnalytics(ColumnarMovieInfoStore catalog, ReviewAggregateStore reviews, Map<Long, Revenue> revenues,
+                            ForkJoinPool pool) {
+        this.catalog = catalog;
+        this.pool = pool;
+        this.rows = catalog.size();
+        this.reviewCounts = new long[rows];
+        this.ratingSums = new double[rows];
+        this.budgets = new double[rows];
+        this.boxOffices = new double[rows];
+        for (int row = 0; row < rows; row++) {
+            long movieInfoId = catalog.movieInfoId(row);
+            reviewCounts[row] = reviews.count(movieInfoId);
+            ratingSums[row] = reviews.sum(movieInfoId);
+            var revenue = revenues.get(movieInfoId);
+            if (revenue != null) {
+                budgets[row] = revenue.getBudget();
+                boxOffices[row] = revenue.getBoxOffice();
+            }
+        }
+    }
+
+    /**
+     * loads the catalog, folds every movie's reviews into aggregates and fetches revenue on boundedElastic
+     */
+    public static Mono<CatalogAnalytics> load(MovieInfoService movieInfoService, ReviewService reviewService,
+                                              RevenueService revenueService) {
+        var catalog = new ColumnarMovieInfoStore();
+        var reviews = new ReviewAggregateStore();
+        return movieInfoService.retrieveMoviesFlux()
+                .doOnNext(catalog::add)
+                .flatMap(movieInfo -> reviews.ingest(reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId()))
+                        .then(Mono.fromCallable(() -> revenueService.getRevenue(movieInfo.getMovieInfoId()))
+                                .subscribeOn(Schedulers.boundedElastic())))
+                .collect(Collectors.toMap(Revenue::getMovieInfoId, Function.identity()))
+                .map(revenues -> new CatalogAnalytics(catalog, reviews, revenues));
+    }
+
+    public Flux<GroupAggregate> byYear() {
+        return Flux.defer(() -> {
+            int minYear = Integer.MAX_VALUE;
+            int maxYear = Integer.MIN_VALUE;
+            for (int row = 0; row < rows; row++) {
+                int year = catalog.year(row);
+                if (year != ColumnarMovieInfoStore.NO_VALUE) {
+                    minYear = Math.min(minYear, year);
+                    maxYear = Math.max(maxYear, year);
+                }
+            }
+            if (minYear > maxYear) {
+                return Flux.empty();
+            }
+            int firstYear = minYear;
+            return aggregate(maxYear - minYear + 1, new YearGroups(firstYear), group -> String.valueOf(firstYear + group));
+        });
+    }
+
+    public Flux<GroupAggregate> byCast() {
+        return Flux.defer(() -> aggregate(catalog.castDictionarySize(), new CastGroups(), catalog::castName));
+    }
+
+    private Flux<GroupAggregate> aggregate(int groups, Grouping grouping, Function<Integer, String> groupName) {
+        return Mono.fromCallable(() -> pool.invoke(new ScanTask(0, rows, groups, grouping, chunkRows())))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(partial -> Flux.range(0, groups)
+                        .filter(group -> partial.movies[group] > 0)
+                        .map(group -> new GroupAggregate(groupName.apply(group), partial.movies[group], partial.reviews[group],
+                                partial.reviews[group] == 0 ? 0 : partial.ratingSums[group] / partial.reviews[group],
+                                partial.budgets[group], partial.boxOffices[group])));
+    }
+
+    private int chunkRows() {
+        return Math.max(MIN_CHUNK_ROWS, (rows + pool.getParallelism() - 1) / pool.getParallelism());
+    }
+
+    private interface Grouping {
+        void accumulate(int row, Partial partial);
+    }
+
+    private class YearGroups implements Grouping {
+        private final int firstYear;
+
+        YearGroups(int firstYear) {
+            this.firstYear = firstYear;
+        }
+
+        @Override
+        public void accumulate(int row, Partial partial) {
+            int year = catalog.year(row);
+            if (year != ColumnarMovieInfoStore.NO_VALUE) {
+                partial.add(year - firstYear, row);
+            }
+        }
+    }
+
+    private class CastGroups implements Grouping {
+        @Override
+        public void accumulate(int row, Partial partial) {
+            int castCount = catalog.castCount(row);
+            for (int i = 0; i < castCount; i++) {
+                int castId = catalog.castId(row, i);
+                if (castId >= 0) {
+                    partial.add(castId, row);
+                }
+            }
+        }
+    }
+
+    private class Partial {
+        final long[] movies;
+        final long[] reviews;
+        final double[] ratingSums;
+        final double[] budgets;
+        final double[] boxOffices;
+
+        Partial(int groups) {
+            movies = new long[groups];
+            reviews = new long[groups];
+            ratingSums = new double[groups];
+            budgets = new double[groups];
+            boxOffices = new double[groups];
+        }
+
+        void add(int group, int row) {
+            movies[group]++;
+            reviews[group] += reviewCounts[row];
+            ratingSums[group] += CatalogAnalytics.this.ratingSums[row];
+            budgets[group] += CatalogAnalytics.this.budgets[row];
+            boxOffices[group] += CatalogAnalytics.this.boxOffices[row];
+        }
+
+        Partial merge(Partial other) {
+            for (int group = 0; group < movies.length; group++) {
+                movies[group] += other.movies[group];
+                reviews[group] += other.reviews[group];
+                ratingSums[group] += other.ratingSums[group];
+                budgets[group] += other.budgets[group];
+                boxOffices[group] += other.boxOffices[group];
+            }
+            return this;
+        }
+    }
+
+    private class ScanTask extends RecursiveTask<Partial> {
+        private final int from;
+        private final int to;
+        private final int groups;
+        private final Grouping grouping;
+        private final int chunkRows;
+
+        ScanTask(int from, int to, int groups, Grouping grouping, int chunkRows) {
+            this.from = from;
+            this.to = to;
+            this.groups = groups;
+            this.grouping = grouping;
+            this.chunkRows = chunkRows;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= chunkRows) {
+                var partial = new Partial(groups);
+                for (int row = from; row < to; row++) {
+                    grouping.accumulate(row, partial);
+                }
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            var left = new ScanTask(from, middle, groups, grouping, chunkRows);
+            var right = new ScanTask(middle, to, groups, grouping, chunkRows);
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.jay.reactorsamples.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupAggregate {
+    private String group;
+    private long movies;
+    private long reviews;
+    private double averageRating;
+    private double totalBudget;
+    private double totalBoxOffice;
+}
@@ -0,0 +1,15 @@
+package io.jay.reactorsamples.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Leaderboard {
+    private List<LeaderboardEntry> byBoxOffice;
+    private List<LeaderboardEntry> byRoi;
+}
@@ -0,0 +1,15 @@
+package io.jay.reactorsamples.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntry {
+    private Long movieInfoId;
+    private double budget;
+    private double boxOffice;
+    private double roi;
+}
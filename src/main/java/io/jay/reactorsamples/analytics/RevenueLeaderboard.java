@@ -0,0 +1,232 @@
+package io.jay.reactorsamples.analytics;
+
+import io.jay.reactorsamples.domain.Revenue;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Streaming top-K of movies by box office and by ROI ((boxOffice - budget) / budget).
+ * The latest revenue per movie wins. Each ranking is maintained incrementally per update and only rescans
+ * the live entries when a top-K member falls out; a Leaderboard is only pushed when one of the two top-K
+ * lists changed. Updates without a movieInfoId are rejected with an IllegalArgumentException.
+ */
+public class RevenueLeaderboard {
+
+    private static final Object TICK = new Object();
+    private static final Object COMPLETE = new Object();
+
+    private final int k;
+
+    public RevenueLeaderboard(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.k = k;
+    }
+
+    /**
+     * rankings over every update seen so far
+     */
+    public Flux<Leaderboard> leaderboard(Flux<Revenue> updates) {
+        return Flux.defer(() -> {
+            var rankings = new Rankings(k);
+            return updates.<Leaderboard>handle((revenue, sink) -> {
+                if (rankings.update(revenue, now())) {
+                    sink.next(rankings.leaderboard());
+                }
+            });
+        });
+    }
+
+    /**
+     * rankings restart empty at every window boundary
+     */
+    public Flux<Leaderboard> tumbling(Flux<Revenue> updates, Duration window) {
+        return updates
+                .window(window)
+                .concatMap(this::leaderboard);
+    }
+
+    /**
+     * a movie drops out of the rankings once its latest update is older than the window
+     */
+    public Flux<Leaderboard> sliding(Flux<Revenue> updates, Duration window) {
+        var tick = window.dividedBy(10).isZero() ? window : window.dividedBy(10);
+        return Flux.defer(() -> {
+            var rankings = new Rankings(k);
+            return Flux.merge(
+                            updates.cast(Object.class).concatWith(Mono.just(COMPLETE)),
+                            Flux.interval(tick).map(i -> TICK))
+                    .takeWhile(event -> event != COMPLETE)
+                    .<Leaderboard>handle((event, sink) -> {
+                        long now = now();
+                        boolean changed = event == TICK
+                                ? rankings.evictOlderThan(now - window.toMillis())
+                                : rankings.update((Revenue) event, now);
+                        if (changed) {
+                            sink.next(rankings.leaderboard());
+                        }
+                    });
+        });
+    }
+
+    private static long now() {
+        return Schedulers.parallel().now(TimeUnit.MILLISECONDS);
+    }
+
+    private static class Rankings {
+        private final int k;
+        private final Map<Long, LeaderboardEntry> latest = new HashMap<>();
+        private final Map<Long, Long> updatedAt = new HashMap<>();
+        private final Ranking byBoxOffice = new Ranking(LeaderboardEntry::getBoxOffice);
+        private final Ranking byRoi = new Ranking(LeaderboardEntry::getRoi);
+
+        Rankings(int k) {
+            this.k = k;
+        }
+
+        boolean update(Revenue revenue, long now) {
+            if (revenue.getMovieInfoId() == null) {
+                throw new IllegalArgumentException("revenue update without movieInfoId");
+            }
+            var entry = entry(revenue);
+            var previous = latest.put(entry.getMovieInfoId(), entry);
+            updatedAt.put(entry.getMovieInfoId(), now);
+
+            boolean changed = byBoxOffice.replace(previous, entry);
+            changed |= byRoi.replace(previous, entry);
+            return changed;
+        }
+
+        boolean evictOlderThan(long cutoff) {
+            var expired = new ArrayList<LeaderboardEntry>();
+            updatedAt.forEach((movieInfoId, timestamp) -> {
+                if (timestamp < cutoff) {
+                    expired.add(latest.get(movieInfoId));
+                }
+            });
+            if (expired.isEmpty()) {
+                return false;
+            }
+            expired.forEach(entry -> {
+                latest.remove(entry.getMovieInfoId());
+                updatedAt.remove(entry.getMovieInfoId());
+            });
+            boolean changed = byBoxOffice.removeAll(expired);
+            changed |= byRoi.removeAll(expired);
+            return changed;
+        }
+
+        Leaderboard leaderboard() {
+            return new Leaderboard(byBoxOffice.snapshot, byRoi.snapshot);
+        }
+
+        private static LeaderboardEntry entry(Revenue revenue) {
+            double roi = revenue.getBudget() > 0
+                    ? (revenue.getBoxOffice() - revenue.getBudget()) / revenue.getBudget()
+                    : Double.NaN;
+            return new LeaderboardEntry(revenue.getMovieInfoId(), revenue.getBudget(), revenue.getBoxOffice(), roi);
+        }
+
+        /**
+         * Top k by one metric, kept in a sorted set and updated per event. Entries outside the top k always
+         * rank below its weakest member, so latest only has to be rescanned when a member leaves or drops
+         * below an entry that is not in the set.
+         */
+        private class Ranking {
+            private final ToDoubleFunction<LeaderboardEntry> metric;
+            private final Comparator<LeaderboardEntry> order;
+            private final TreeSet<LeaderboardEntry> top;
+            private int ranked;
+            private List<LeaderboardEntry> snapshot = List.of();
+
+            Ranking(ToDoubleFunction<LeaderboardEntry> metric) {
+                this.metric = metric;
+                this.order = Comparator.comparingDouble(metric).reversed()
+                        .thenComparing(LeaderboardEntry::getMovieInfoId);
+                this.top = new TreeSet<>(order);
+            }
+
+            boolean replace(LeaderboardEntry previous, LeaderboardEntry entry) {
+                boolean lostMember = false;
+                if (previous != null && ranks(previous)) {
+                    ranked--;
+                    lostMember = top.remove(previous);
+                }
+                if (!ranks(entry)) {
+                    return lostMember && refillAndPublish();
+                }
+                ranked++;
+                if (lostMember) {
+                    boolean nothingOutside = ranked == top.size() + 1;
+                    if (nothingOutside || (!top.isEmpty() && order.compare(entry, top.last()) < 0)) {
+                        top.add(entry);
+                        return publish();
+                    }
+                    return refillAndPublish();
+                }
+                if (top.size() < k) {
+                    top.add(entry);
+                    return publish();
+                }
+                if (order.compare(entry, top.last()) < 0) {
+                    top.pollLast();
+                    top.add(entry);
+                    return publish();
+                }
+                return false;
+            }
+
+            boolean removeAll(List<LeaderboardEntry> removed) {
+                boolean lostMember = false;
+                for (LeaderboardEntry entry : removed) {
+                    if (ranks(entry)) {
+                        ranked--;
+                        lostMember |= top.remove(entry);
+                    }
+                }
+                return lostMember && refillAndPublish();
+            }
+
+            private boolean refillAndPublish() {
+                if (ranked > top.size()) {
+                    top.clear();
+                    for (LeaderboardEntry entry : latest.values()) {
+                        if (!ranks(entry)) {
+                            continue;
+                        }
+                        if (top.size() < k) {
+                            top.add(entry);
+                        } else if (order.compare(entry, top.last()) < 0) {
+                            top.pollLast();
+                            top.add(entry);
+                        }
+                    }
+                }
+                return publish();
+            }
+
+            private boolean publish() {
+                var current = List.copyOf(top);
+                boolean changed = !current.equals(snapshot);
+                snapshot = current;
+                return changed;
+            }
+
+            private boolean ranks(LeaderboardEntry entry) {
+                return !Double.isNaN(metric.applyAsDouble(entry));
+            }
+        }
+    }
+}
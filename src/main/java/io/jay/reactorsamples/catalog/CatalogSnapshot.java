@@ -0,0 +1,356 @@
+package io.jay.reactorsamples.catalog;
+
+import io.jay.reactorsamples.domain.Movie;
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.domain.ReviewSummary;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read-only, memory-mapped snapshot of the aggregated catalog (MovieInfo plus ReviewSummary per movie).
+ * Opening maps the file and checks the header and index (ids ascending, every record offset in bounds, the last
+ * record ending exactly at the end of the file), so a truncated or corrupt file fails open() instead of a later
+ * read. Records are decoded on access so their pages are faulted in lazily. Writes go to a temp file that is atomically moved over the previous snapshot; an already
+ * mapped older snapshot keeps reading its own (unlinked) file.
+ *
+ * Layout (big endian):
+ * header   magic, format version, snapshot version, created millis, movie count
+ * index    (movieInfoId, record offset) per movie, sorted by id
+ * records  year, release epoch day, name, cast, review count/average/min/max, histogram
+ */
+public class CatalogSnapshot {
+
+    public static final int MAGIC = 0x4D435331;
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4;
+    private static final int INDEX_ENTRY_BYTES = 8 + 4;
+    private static final int ABSENT = -1;
+    /* year, release day, name length, cast count, review count, average, min, max, histogram */
+    private static final int MIN_RECORD_BYTES = 4 + 4 + 4 + 4 + 8 + 8 + 8 + 8 + ReviewAggregateStore.HISTOGRAM_BINS * 4;
+    /* record offsets are ints and a MappedByteBuffer cannot be larger anyway */
+    private static final long MAX_FILE_BYTES = Integer.MAX_VALUE;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final long version;
+    private final long createdAtMillis;
+    private final int size;
+
+    private CatalogSnapshot(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException(path + " is not a catalog snapshot");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalStateException(path + " has unsupported snapshot format " + buffer.getInt(4));
+        }
+        this.version = buffer.getLong(8);
+        this.createdAtMillis = buffer.getLong(16);
+        this.size = buffer.getInt(24);
+        checkIndex();
+    }
+
+    private void checkIndex() {
+        long recordsStart = HEADER_BYTES + (long) size * INDEX_ENTRY_BYTES;
+        if (size < 0 || recordsStart > buffer.capacity()) {
+            throw new IllegalStateException(path + " is truncated, its index of " + size + " movies does not fit");
+        }
+        long previousId = Long.MIN_VALUE;
+        long previousEnd = recordsStart;
+        for (int entry = 0; entry < size; entry++) {
+            long id = buffer.getLong(indexPosition(entry));
+            int offset = buffer.getInt(indexPosition(entry) + 8);
+            if (entry > 0 && id <= previousId) {
+                throw new IllegalStateException(path + " has an unsorted index at entry " + entry);
+            }
+            if (offset < previousEnd || (long) offset + MIN_RECORD_BYTES > buffer.capacity()) {
+                throw new IllegalStateException(path + " is truncated or corrupt, record " + entry + " at " + offset
+                        + " is out of bounds");
+            }
+            previousId = id;
+            previousEnd = (long) offset + MIN_RECORD_BYTES;
+        }
+        long end = size == 0 ? recordsStart : lastRecordEnd();
+        if (end != buffer.capacity()) {
+            throw new IllegalStateException(path + " is truncated or corrupt, records end at " + end + " of "
+                    + buffer.capacity() + " bytes");
+        }
+    }
+
+    /**
+     * walks the variable length fields of the last record, which must end exactly where the file ends
+     */
+    private long lastRecordEnd() {
+        long position = buffer.getInt(indexPosition(size - 1) + 8) + 8L;
+        position = skipString(position);
+        int castCount = readLengthAt(position);
+        position += 4;
+        for (int i = 0; castCount != ABSENT && i < castCount; i++) {
+            position = skipString(position);
+        }
+        return position + MIN_RECORD_BYTES - 16;
+    }
+
+    private long skipString(long position) {
+        int length = readLengthAt(position);
+        return position + 4 + (length == ABSENT ? 0 : length);
+    }
+
+    private int readLengthAt(long position) {
+        if (position + 4 > buffer.capacity()) {
+            throw new IllegalStateException(path + " is truncated, its last record ends early");
+        }
+        int length = buffer.getInt((int) position);
+        if (length < ABSENT) {
+            throw new IllegalStateException(path + " is corrupt, negative length " + length + " at " + position);
+        }
+        return length;
+    }
+
+    public static CatalogSnapshot open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new CatalogSnapshot(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, checkFileSize(channel.size())));
+        }
+    }
+
+    /**
+     * empty when there is no snapshot at the path yet
+     */
+    public static Mono<CatalogSnapshot> load(Path path) {
+        return Mono.fromCallable(() -> Files.exists(path) ? open(path) : null)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public static Mono<CatalogSnapshot> write(Path path, long version, Flux<Movie> movies) {
+        return movies
+                .collectList()
+                .publishOn(Schedulers.boundedElastic())
+                .map(list -> {
+                    try {
+                        writeFile(path, version, list);
+                        return open(path);
+                    } catch (IOException ex) {
+                        throw new IllegalStateException("could not write catalog snapshot " + path, ex);
+                    }
+                });
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public long createdAtMillis() {
+        return createdAtMillis;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Mono<Movie> movie(long movieInfoId) {
+        return Mono.fromSupplier(() -> {
+            int entry = findEntry(movieInfoId);
+            return entry < 0 ? null : read(entry);
+        });
+    }
+
+    /**
+     * in movieInfoId order
+     */
+    public Flux<Movie> movies() {
+        return Flux.range(0, size).map(this::read);
+    }
+
+    private int findEntry(long movieInfoId) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = buffer.getLong(indexPosition(mid));
+            if (id < movieInfoId) {
+                low = mid + 1;
+            } else if (id > movieInfoId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexPosition(int entry) {
+        return HEADER_BYTES + entry * INDEX_ENTRY_BYTES;
+    }
+
+    private Movie read(int entry) {
+        long movieInfoId = buffer.getLong(indexPosition(entry));
+        var record = buffer.duplicate();
+        record.position(buffer.getInt(indexPosition(entry) + 8));
+
+        var movieInfo = new MovieInfo();
+        movieInfo.setMovieInfoId(movieInfoId);
+        int year = record.getInt();
+        movieInfo.setYear(year == ColumnarMovieInfoStore.NO_VALUE ? null : year);
+        int releaseEpochDay = record.getInt();
+        movieInfo.setRelease_date(releaseEpochDay == ColumnarMovieInfoStore.NO_VALUE ? null : LocalDate.ofEpochDay(releaseEpochDay));
+        movieInfo.setName(readString(record));
+        int castCount = record.getInt();
+        if (castCount != ABSENT) {
+            var cast = new ArrayList<String>(castCount);
+            for (int i = 0; i < castCount; i++) {
+                cast.add(readString(record));
+            }
+            movieInfo.setCast(cast);
+        }
+
+        long count = record.getLong();
+        double average = record.getDouble();
+        double min = record.getDouble();
+        double max = record.getDouble();
+        var histogram = new int[ReviewAggregateStore.HISTOGRAM_BINS];
+        for (int bin = 0; bin < histogram.length; bin++) {
+            histogram[bin] = record.getInt();
+        }
+        var summary = new ReviewSummary(movieInfoId, count, average, min, max, histogram);
+        return new Movie(movieInfo, summary);
+    }
+
+    private static String readString(ByteBuffer record) {
+        int length = record.getInt();
+        if (length == ABSENT) {
+            return null;
+        }
+        var bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * movies without a movieInfoId cannot be looked up and are skipped, duplicates keep the last one
+     */
+    private static void writeFile(Path path, long version, List<Movie> movies) throws IOException {
+        var byId = new ArrayList<Movie>(movies.size());
+        for (Movie movie : movies) {
+            if (movie.getMovieInfo() != null && movie.getMovieInfo().getMovieInfoId() != null) {
+                byId.add(movie);
+            }
+        }
+        byId.sort(Comparator.comparing((Movie movie) -> movie.getMovieInfo().getMovieInfoId()));
+        for (int i = byId.size() - 1; i > 0; i--) {
+            if (byId.get(i - 1).getMovieInfo().getMovieInfoId().equals(byId.get(i).getMovieInfo().getMovieInfoId())) {
+                byId.remove(i - 1);
+            }
+        }
+
+        int recordsStart = (int) checkFileSize(HEADER_BYTES + (long) byId.size() * INDEX_ENTRY_BYTES);
+        var offsets = new int[byId.size()];
+        var records = new ByteArrayOutputStream((int) Math.min(byId.size() * 128L, MAX_FILE_BYTES - recordsStart));
+        var out = new DataOutputStream(records);
+        for (int i = 0; i < byId.size(); i++) {
+            offsets[i] = recordsStart + out.size();
+            writeRecord(out, byId.get(i));
+            /* out.size() stops counting at Integer.MAX_VALUE, which still fails the check after the header */
+            checkFileSize((long) recordsStart + out.size());
+        }
+        out.flush();
+
+        var head = ByteBuffer.allocate(recordsStart);
+        head.putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(version)
+                .putLong(System.currentTimeMillis())
+                .putInt(byId.size());
+        for (int i = 0; i < byId.size(); i++) {
+            head.putLong(byId.get(i).getMovieInfo().getMovieInfoId()).putInt(offsets[i]);
+        }
+        head.flip();
+
+        var directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        var temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (var channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writeFully(channel, head);
+                writeFully(channel, ByteBuffer.wrap(records.toByteArray()));
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static long checkFileSize(long bytes) throws IOException {
+        if (bytes > MAX_FILE_BYTES) {
+            throw new IOException(bytes + " bytes is over the " + MAX_FILE_BYTES + " byte catalog snapshot limit");
+        }
+        return bytes;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, Movie movie) throws IOException {
+        var movieInfo = movie.getMovieInfo();
+        out.writeInt(movieInfo.getYear() == null ? ColumnarMovieInfoStore.NO_VALUE : movieInfo.getYear());
+        out.writeInt(movieInfo.getRelease_date() == null
+                ? ColumnarMovieInfoStore.NO_VALUE
+                : (int) movieInfo.getRelease_date().toEpochDay());
+        writeString(out, movieInfo.getName());
+        if (movieInfo.getCast() == null) {
+            out.writeInt(ABSENT);
+        } else {
+            out.writeInt(movieInfo.getCast().size());
+            for (String castMember : movieInfo.getCast()) {
+                writeString(out, castMember);
+            }
+        }
+
+        var summary = movie.getReviewSummary();
+        long count = summary == null ? 0 : summary.getCount();
+        out.writeLong(count);
+        out.writeDouble(count == 0 ? 0 : summary.getAverage());
+        out.writeDouble(count == 0 ? 0 : summary.getMin());
+        out.writeDouble(count == 0 ? 0 : summary.getMax());
+        var histogram = summary == null ? null : summary.getHistogram();
+        for (int bin = 0; bin < ReviewAggregateStore.HISTOGRAM_BINS; bin++) {
+            out.writeInt(histogram == null || bin >= histogram.length ? 0 : histogram[bin]);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(ABSENT);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
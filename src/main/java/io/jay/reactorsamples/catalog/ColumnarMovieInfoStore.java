@@ -0,0 +1,276 @@
+package io.jay.reactorsamples.catalog;
+
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.util.StringDictionary;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * In-memory catalog kept as primitive columns instead of one MovieInfo object graph per title.
+ * ids, years and release dates (epoch day) live in primitive arrays, cast members are dictionary
+ * encoded int arrays and names are UTF-8 bytes in an off-heap arena.
+ * Rows are read back through flyweight MovieInfo views that decode fields on access.
+ * Appends are serialized, reads of already published rows are lock free.
+ */
+public class ColumnarMovieInfoStore {
+
+    public static final long NO_ID = Long.MIN_VALUE;
+    public static final int NO_VALUE = Integer.MIN_VALUE;
+
+    private long[] ids;
+    private int[] years;
+    private int[] releaseEpochDays;
+    private int[] nameOffsets;
+    private int[] nameLengths;
+    private int[] castStarts;
+    private int[] castIds;
+    private int castIdsUsed;
+    private ByteBuffer nameArena;
+    private int nameArenaUsed;
+    private volatile int size;
+
+    private final StringDictionary castDictionary;
+
+    public ColumnarMovieInfoStore() {
+        this(1024);
+    }
+
+    public ColumnarMovieInfoStore(int initialCapacity) {
+        this(initialCapacity, new StringDictionary(Integer.MAX_VALUE));
+    }
+
+    public ColumnarMovieInfoStore(int initialCapacity, StringDictionary castDictionary) {
+        this.castDictionary = castDictionary;
+        int capacity = Math.max(initialCapacity, 1);
+        ids = new long[capacity];
+        years = new int[capacity];
+        releaseEpochDays = new int[capacity];
+        nameOffsets = new int[capacity];
+        nameLengths = new int[capacity];
+        castStarts = new int[capacity + 1];
+        castIds = new int[capacity * 2];
+        nameArena = ByteBuffer.allocateDirect(capacity * 16);
+    }
+
+    public Mono<Void> load(Flux<MovieInfo> movieInfoFlux) {
+        return movieInfoFlux
+                .doOnNext(this::add)
+                .then();
+    }
+
+    public synchronized int add(MovieInfo movieInfo) {
+        int row = size;
+        ensureRowCapacity(row + 1);
+
+        ids[row] = movieInfo.getMovieInfoId() == null ? NO_ID : movieInfo.getMovieInfoId();
+        years[row] = movieInfo.getYear() == null ? NO_VALUE : movieInfo.getYear();
+        releaseEpochDays[row] = movieInfo.getRelease_date() == null
+                ? NO_VALUE
+                : (int) movieInfo.getRelease_date().toEpochDay();
+        appendName(row, movieInfo.getName());
+        appendCast(row, movieInfo.getCast());
+
+        size = row + 1;
+        return row;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public MovieInfo get(int row) {
+        checkRow(row);
+        return new MovieInfoView(row);
+    }
+
+    public Flux<MovieInfo> scan() {
+        return Flux.defer(() -> Flux.range(0, size).map(this::get));
+    }
+
+    public long movieInfoId(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    public int year(int row) {
+        checkRow(row);
+        return years[row];
+    }
+
+    public int releaseEpochDay(int row) {
+        checkRow(row);
+        return releaseEpochDays[row];
+    }
+
+    public String name(int row) {
+        checkRow(row);
+        int length = nameLengths[row];
+        if (length < 0) {
+            return null;
+        }
+        var bytes = new byte[length];
+        var arena = nameArena.duplicate();
+        arena.position(nameOffsets[row]);
+        arena.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int castCount(int row) {
+        checkRow(row);
+        return castStarts[row + 1] - castStarts[row];
+    }
+
+    public int castId(int row, int index) {
+        checkRow(row);
+        return castIds[castStarts[row] + index];
+    }
+
+    public String castName(int castId) {
+        return castDictionary.lookup(castId);
+    }
+
+    public int castDictionarySize() {
+        return castDictionary.size();
+    }
+
+    public long offHeapBytes() {
+        return nameArena.capacity();
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " out of " + size);
+        }
+    }
+
+    private void ensureRowCapacity(int rows) {
+        if (rows <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(rows, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        years = Arrays.copyOf(years, capacity);
+        releaseEpochDays = Arrays.copyOf(releaseEpochDays, capacity);
+        nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+        nameLengths = Arrays.copyOf(nameLengths, capacity);
+        castStarts = Arrays.copyOf(castStarts, capacity + 1);
+    }
+
+    private void appendName(int row, String name) {
+        if (name == null) {
+            nameOffsets[row] = nameArenaUsed;
+            nameLengths[row] = -1;
+            return;
+        }
+        var bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameArenaUsed + bytes.length > nameArena.capacity()) {
+            var grown = ByteBuffer.allocateDirect(Math.max(nameArenaUsed + bytes.length, nameArena.capacity() * 2));
+            var used = nameArena.duplicate();
+            used.position(0).limit(nameArenaUsed);
+            grown.put(used);
+            nameArena = grown;
+        }
+        var arena = nameArena.duplicate();
+        arena.position(nameArenaUsed);
+        arena.put(bytes);
+        nameOffsets[row] = nameArenaUsed;
+        nameLengths[row] = bytes.length;
+        nameArenaUsed += bytes.length;
+    }
+
+    private void appendCast(int row, List<String> cast) {
+        int count = cast == null ? 0 : cast.size();
+        if (castIdsUsed + count > castIds.length) {
+            castIds = Arrays.copyOf(castIds, Math.max(castIdsUsed + count, castIds.length * 2));
+        }
+        castStarts[row] = castIdsUsed;
+        for (int i = 0; i < count; i++) {
+            castIds[castIdsUsed++] = castCode(cast.get(i));
+        }
+        castStarts[row + 1] = castIdsUsed;
+    }
+
+    private int castCode(String castName) {
+        int castId = castDictionary.intern(castName);
+        if (castId < 0 && castName != null) {
+            throw new IllegalStateException("cast dictionary is full");
+        }
+        return castId;
+    }
+
+    /**
+     * flyweight: holds only the row, every getter decodes from the columns
+     */
+    private class MovieInfoView extends MovieInfo {
+        private final int row;
+
+        MovieInfoView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Long getMovieInfoId() {
+            long id = ids[row];
+            return id == NO_ID ? null : id;
+        }
+
+        @Override
+        public String getName() {
+            return name(row);
+        }
+
+        @Override
+        public Integer getYear() {
+            int year = years[row];
+            return year == NO_VALUE ? null : year;
+        }
+
+        @Override
+        public List<String> getCast() {
+            int count = castCount(row);
+            var cast = new String[count];
+            for (int i = 0; i < count; i++) {
+                cast[i] = castName(castId(row, i));
+            }
+            return Collections.unmodifiableList(Arrays.asList(cast));
+        }
+
+        @Override
+        public LocalDate getRelease_date() {
+            int epochDay = releaseEpochDays[row];
+            return epochDay == NO_VALUE ? null : LocalDate.ofEpochDay(epochDay);
+        }
+
+        @Override
+        public void setMovieInfoId(Long movieInfoId) {
+            throw new UnsupportedOperationException("catalog rows are read-only");
+        }
+
+        @Override
+        public void setName(String name) {
+            throw new UnsupportedOperationException("catalog rows are read-only");
+        }
+
+        @Override
+        public void setYear(Integer year) {
+            throw new UnsupportedOperationException("catalog rows are read-only");
+        }
+
+        @Override
+        public void setCast(List<String> cast) {
+            throw new UnsupportedOperationException("catalog rows are read-only");
+        }
+
+        @Override
+        public void setRelease_date(LocalDate release_date) {
+            throw new UnsupportedOperationException("catalog rows are read-only");
+        }
+    }
+}
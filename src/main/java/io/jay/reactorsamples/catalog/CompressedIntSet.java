@@ -0,0 +1,139 @@
+package io.jay.reactorsamples.catalog;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Immutable sorted set of non-negative ints stored as varint encoded deltas.
+ * Posting lists of dense catalog ordinals mostly take one byte per entry.
+ */
+public class CompressedIntSet {
+
+    public static final CompressedIntSet EMPTY = new CompressedIntSet(new byte[0], 0);
+
+    private final byte[] bytes;
+    private final int size;
+
+    private CompressedIntSet(byte[] bytes, int size) {
+        this.bytes = bytes;
+        this.size = size;
+    }
+
+    /**
+     * @param values strictly ascending, non-negative
+     */
+    public static CompressedIntSet of(int[] values, int length) {
+        var out = new byte[length * 5];
+        int position = 0;
+        int previous = -1;
+        for (int i = 0; i < length; i++) {
+            int value = values[i];
+            if (value <= previous) {
+                throw new IllegalArgumentException("values must be strictly ascending and non-negative");
+            }
+            int delta = value - previous - 1;
+            previous = value;
+            while ((delta & ~0x7F) != 0) {
+                out[position++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            out[position++] = (byte) delta;
+        }
+        return new CompressedIntSet(Arrays.copyOf(out, position), length);
+    }
+
+    public static CompressedIntSet of(int... values) {
+        return of(values, values.length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int sizeInBytes() {
+        return bytes.length;
+    }
+
+    public boolean contains(int value) {
+        var iterator = iterator();
+        while (iterator.hasNext()) {
+            int next = iterator.nextInt();
+            if (next >= value) {
+                return next == value;
+            }
+        }
+        return false;
+    }
+
+    public int[] toArray() {
+        var values = new int[size];
+        var iterator = iterator();
+        for (int i = 0; i < size; i++) {
+            values[i] = iterator.nextInt();
+        }
+        return values;
+    }
+
+    public CompressedIntSet intersect(CompressedIntSet other) {
+        var result = new int[Math.min(size, other.size)];
+        int length = 0;
+        var left = iterator();
+        var right = other.iterator();
+        if (!left.hasNext() || !right.hasNext()) {
+            return EMPTY;
+        }
+        int a = left.nextInt();
+        int b = right.nextInt();
+        while (true) {
+            if (a == b) {
+                result[length++] = a;
+                if (!left.hasNext() || !right.hasNext()) {
+                    break;
+                }
+                a = left.nextInt();
+                b = right.nextInt();
+            } else if (a < b) {
+                if (!left.hasNext()) {
+                    break;
+                }
+                a = left.nextInt();
+            } else {
+                if (!right.hasNext()) {
+                    break;
+                }
+                b = right.nextInt();
+            }
+        }
+        return of(result, length);
+    }
+
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int position;
+            private int previous = -1;
+
+            @Override
+            public boolean hasNext() {
+                return position < bytes.length;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[position++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                previous = previous + delta + 1;
+                return previous;
+            }
+        };
+    }
+}
@@ -0,0 +1,169 @@
+package io.jay.reactorsamples.catalog;
+
+import io.jay.reactorsamples.domain.MovieInfo;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+/**
+ * Secondary indexes over the movie catalog: year -> movies, release date (sorted, for range queries)
+ * and cast member -> movies. Posting lists hold catalog ordinals as CompressedIntSets.
+ * A rebuild creates a new snapshot off to the side and swaps it in atomically,
+ * so a query always sees one consistent version of the catalog.
+ */
+public class MovieCatalogIndex {
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    public Mono<Void> rebuild(Flux<MovieInfo> catalog) {
+        return catalog
+                .collectList()
+                .map(Snapshot::build)
+                .doOnNext(current::set)
+                .then();
+    }
+
+    public boolean isBuilt() {
+        return current.get() != null;
+    }
+
+    public int size() {
+        var snapshot = current.get();
+        return snapshot == null ? 0 : snapshot.movies.size();
+    }
+
+    public Flux<MovieInfo> byYear(int year) {
+        return Flux.defer(() -> {
+            var snapshot = current.get();
+            if (snapshot == null) {
+                return Flux.empty();
+            }
+            return snapshot.movies(snapshot.byYear.getOrDefault(year, CompressedIntSet.EMPTY));
+        });
+    }
+
+    public Flux<MovieInfo> byCast(String castMember) {
+        return Flux.defer(() -> {
+            var snapshot = current.get();
+            if (snapshot == null) {
+                return Flux.empty();
+            }
+            return snapshot.movies(snapshot.byCast.getOrDefault(castMember, CompressedIntSet.EMPTY));
+        });
+    }
+
+    /**
+     * both bounds inclusive, emitted in release date order. Bounds are searched as long epoch days, so
+     * LocalDate.MIN / MAX work as open ends.
+     */
+    public Flux<MovieInfo> releasedBetween(LocalDate from, LocalDate to) {
+        return Flux.defer(() -> {
+            var snapshot = current.get();
+            if (snapshot == null || from.isAfter(to)) {
+                return Flux.empty();
+            }
+            int start = lowerBound(snapshot.releaseDays, from.toEpochDay());
+            int end = lowerBound(snapshot.releaseDays, to.toEpochDay() + 1);
+            return Flux.range(start, end - start)
+                    .map(i -> snapshot.movies.get(snapshot.releaseOrdinals[i]));
+        });
+    }
+
+    private static int lowerBound(int[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static class Snapshot {
+        final List<MovieInfo> movies;
+        final Map<Integer, CompressedIntSet> byYear;
+        final Map<String, CompressedIntSet> byCast;
+        final int[] releaseDays;
+        final int[] releaseOrdinals;
+
+        Snapshot(List<MovieInfo> movies, Map<Integer, CompressedIntSet> byYear, Map<String, CompressedIntSet> byCast,
+                 int[] releaseDays, int[] releaseOrdinals) {
+            this.movies = movies;
+            this.byYear = byYear;
+            this.byCast = byCast;
+            this.releaseDays = releaseDays;
+            this.releaseOrdinals = releaseOrdinals;
+        }
+
+        Flux<MovieInfo> movies(CompressedIntSet ordinals) {
+            return Flux.<Integer>fromIterable(ordinals::iterator)
+                    .map(movies::get);
+        }
+
+        static Snapshot build(List<MovieInfo> movies) {
+            var years = new HashMap<Integer, IntAccumulator>();
+            var cast = new HashMap<String, IntAccumulator>();
+            for (int ordinal = 0; ordinal < movies.size(); ordinal++) {
+                var movieInfo = movies.get(ordinal);
+                if (movieInfo.getYear() != null) {
+                    years.computeIfAbsent(movieInfo.getYear(), year -> new IntAccumulator()).add(ordinal);
+                }
+                if (movieInfo.getCast() != null) {
+                    for (String castMember : movieInfo.getCast()) {
+                        if (castMember != null) {
+                            cast.computeIfAbsent(castMember, name -> new IntAccumulator()).addDistinct(ordinal);
+                        }
+                    }
+                }
+            }
+
+            int[] dated = IntStream.range(0, movies.size())
+                    .filter(ordinal -> movies.get(ordinal).getRelease_date() != null)
+                    .boxed()
+                    .sorted(Comparator.comparing((Integer ordinal) -> movies.get(ordinal).getRelease_date()))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            int[] days = Arrays.stream(dated)
+                    .map(ordinal -> (int) movies.get(ordinal).getRelease_date().toEpochDay())
+                    .toArray();
+
+            return new Snapshot(List.copyOf(movies), compress(years), compress(cast), days, dated);
+        }
+
+        private static <K> Map<K, CompressedIntSet> compress(Map<K, IntAccumulator> postings) {
+            var compressed = new HashMap<K, CompressedIntSet>(postings.size() * 2);
+            postings.forEach((key, ordinals) -> compressed.put(key, CompressedIntSet.of(ordinals.values, ordinals.size)));
+            return compressed;
+        }
+    }
+
+    private static class IntAccumulator {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addDistinct(int value) {
+            if (size == 0 || values[size - 1] != value) {
+                add(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.jay.reactorsamples.catalog;
+
+import io.jay.reactorsamples.domain.MovieChange;
+import io.jay.reactorsamples.domain.MovieInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers a 64 bit content hash of every MovieInfo and the review version seen in the previous pass over
+ * the catalog. classify() tells whether a movie is new, changed or unchanged, commit() records the new
+ * fingerprint once the change has been delivered, so a change whose delivery failed is reported again on the
+ * next pass. endPass() returns the movies that were not seen again and drops uncommitted fingerprints.
+ */
+public class MovieChangeTracker {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Map<Long, Fingerprint> previous = new HashMap<>();
+    private final Map<Long, Fingerprint> pending = new HashMap<>();
+    private final Set<Long> seen = new HashSet<>();
+
+    /**
+     * null when neither the movie info nor its review version changed
+     */
+    public synchronized MovieChange.Type classify(MovieInfo movieInfo, long reviewVersion) {
+        var movieInfoId = movieInfo.getMovieInfoId();
+        seen.add(movieInfoId);
+        var fingerprint = new Fingerprint(contentHash(movieInfo), reviewVersion);
+        var before = previous.get(movieInfoId);
+        if (fingerprint.equals(before)) {
+            pending.remove(movieInfoId);
+            return null;
+        }
+        pending.put(movieInfoId, fingerprint);
+        return before == null ? MovieChange.Type.ADDED : MovieChange.Type.UPDATED;
+    }
+
+    public synchronized void commit(Long movieInfoId) {
+        var fingerprint = pending.remove(movieInfoId);
+        if (fingerprint != null) {
+            previous.put(movieInfoId, fingerprint);
+        }
+    }
+
+    public synchronized List<Long> endPass() {
+        var removed = new ArrayList<Long>();
+        previous.keySet().removeIf(movieInfoId -> {
+            if (seen.contains(movieInfoId)) {
+                return false;
+            }
+            removed.add(movieInfoId);
+            return true;
+        });
+        seen.clear();
+        pending.clear();
+        return removed;
+    }
+
+    public synchronized int size() {
+        return previous.size();
+    }
+
+    /**
+     * FNV-1a over the fields, with separators so that moving text between fields changes the hash
+     */
+    public static long contentHash(MovieInfo movieInfo) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, String.valueOf(movieInfo.getMovieInfoId()));
+        hash = mix(hash, String.valueOf(movieInfo.getName()));
+        hash = mix(hash, String.valueOf(movieInfo.getYear()));
+        if (movieInfo.getCast() == null) {
+            hash = mix(hash, "null");
+        } else {
+            for (String castMember : movieInfo.getCast()) {
+                hash = mix(hash, String.valueOf(castMember));
+            }
+            hash = mix(hash, String.valueOf(movieInfo.getCast().size()));
+        }
+        return mix(hash, String.valueOf(movieInfo.getRelease_date()));
+    }
+
+    private static long mix(long hash, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= 0x1f;
+        return hash * FNV_PRIME;
+    }
+
+    private static class Fingerprint {
+        final long contentHash;
+        final long reviewVersion;
+
+        Fingerprint(long contentHash, long reviewVersion) {
+            this.contentHash = contentHash;
+            this.reviewVersion = reviewVersion;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Fingerprint)) {
+                return false;
+            }
+            var fingerprint = (Fingerprint) other;
+            return contentHash == fingerprint.contentHash && reviewVersion == fingerprint.reviewVersion;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(contentHash * 31 + reviewVersion);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package io.jay.reactorsamples.catalog;
+
+import io.jay.reactorsamples.domain.Review;
+import io.jay.reactorsamples.domain.ReviewSummary;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-movie rating aggregates kept as struct-of-arrays and updated as reviews stream in,
+ * so count, average, min/max and the rating histogram are O(1) reads without holding any Review.
+ * Ratings are bucketed into HISTOGRAM_BINS bins of width 1 (0 - 10), out of range ratings are clamped.
+ */
+public class ReviewAggregateStore {
+
+    public static final int HISTOGRAM_BINS = 10;
+
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private long[] movieInfoIds;
+    private long[] counts;
+    private double[] sums;
+    private double[] mins;
+    private double[] maxs;
+    private int[] histograms;
+    private int size;
+
+    public ReviewAggregateStore() {
+        this(64);
+    }
+
+    public ReviewAggregateStore(int initialMovies) {
+        int capacity = Math.max(initialMovies, 1);
+        movieInfoIds = new long[capacity];
+        counts = new long[capacity];
+        sums = new double[capacity];
+        mins = new double[capacity];
+        maxs = new double[capacity];
+        histograms = new int[capacity * HISTOGRAM_BINS];
+    }
+
+    public Mono<Void> ingest(Flux<Review> reviewFlux) {
+        return reviewFlux
+                .doOnNext(this::accept)
+                .then();
+    }
+
+    /**
+     * reviews without a movie or a rating do not contribute
+     */
+    public void accept(Review review) {
+        if (review.getMovieInfoId() == null || review.getRating() == null) {
+            return;
+        }
+        accept(review.getMovieInfoId(), review.getRating());
+    }
+
+    public synchronized void accept(long movieInfoId, double rating) {
+        int slot = slotFor(movieInfoId);
+        if (counts[slot] == 0) {
+            mins[slot] = rating;
+            maxs[slot] = rating;
+        } else {
+            mins[slot] = Math.min(mins[slot], rating);
+            maxs[slot] = Math.max(maxs[slot], rating);
+        }
+        counts[slot]++;
+        sums[slot] += rating;
+        histograms[slot * HISTOGRAM_BINS + bin(rating)]++;
+    }
+
+    public synchronized long count(long movieInfoId) {
+        var slot = slots.get(movieInfoId);
+        return slot == null ? 0 : counts[slot];
+    }
+
+    public synchronized double sum(long movieInfoId) {
+        var slot = slots.get(movieInfoId);
+        return slot == null ? 0 : sums[slot];
+    }
+
+    public synchronized double average(long movieInfoId) {
+        var slot = slots.get(movieInfoId);
+        return slot == null ? 0 : sums[slot] / counts[slot];
+    }
+
+    public synchronized ReviewSummary summary(long movieInfoId) {
+        var slot = slots.get(movieInfoId);
+        if (slot == null) {
+            return new ReviewSummary(movieInfoId, 0, 0, 0, 0, new int[HISTOGRAM_BINS]);
+        }
+        return summaryOf(slot);
+    }
+
+    public Flux<ReviewSummary> summaries() {
+        return Flux.defer(() -> {
+            synchronized (this) {
+                var summaries = new ReviewSummary[size];
+                for (int slot = 0; slot < size; slot++) {
+                    summaries[slot] = summaryOf(slot);
+                }
+                return Flux.fromArray(summaries);
+            }
+        });
+    }
+
+    public synchronized int movieCount() {
+        return size;
+    }
+
+    private ReviewSummary summaryOf(int slot) {
+        int from = slot * HISTOGRAM_BINS;
+        return new ReviewSummary(movieInfoIds[slot], counts[slot], sums[slot] / counts[slot], mins[slot], maxs[slot],
+                Arrays.copyOfRange(histograms, from, from + HISTOGRAM_BINS));
+    }
+
+    private int slotFor(long movieInfoId) {
+        var slot = slots.get(movieInfoId);
+        if (slot != null) {
+            return slot;
+        }
+        if (size == movieInfoIds.length) {
+            int capacity = size * 2;
+            movieInfoIds = Arrays.copyOf(movieInfoIds, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            sums = Arrays.copyOf(sums, capacity);
+            mins = Arrays.copyOf(mins, capacity);
+            maxs = Arrays.copyOf(maxs, capacity);
+            histograms = Arrays.copyOf(histograms, capacity * HISTOGRAM_BINS);
+        }
+        movieInfoIds[size] = movieInfoId;
+        slots.put(movieInfoId, size);
+        return size++;
+    }
+
+    static int bin(double rating) {
+        if (!(rating > 0)) {
+            return 0;
+        }
+        return Math.min((int) rating, HISTOGRAM_BINS - 1);
+    }
+}
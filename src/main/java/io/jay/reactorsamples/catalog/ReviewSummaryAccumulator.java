@@ -0,0 +1,41 @@
+package io.jay.reactorsamples.catalog;
+
+import io.jay.reactorsamples.domain.Review;
+import io.jay.reactorsamples.domain.ReviewSummary;
+
+/**
+ * Folds the reviews of a single movie into a ReviewSummary: count, sum, min, max and the rating histogram,
+ * with the same rules as ReviewAggregateStore. For one movie at a time, use the store for whole catalogs.
+ */
+public class ReviewSummaryAccumulator {
+
+    private long count;
+    private double sum;
+    private double min;
+    private double max;
+    private final int[] histogram = new int[ReviewAggregateStore.HISTOGRAM_BINS];
+
+    /**
+     * reviews without a rating do not contribute
+     */
+    public void accept(Review review) {
+        if (review.getRating() == null) {
+            return;
+        }
+        double rating = review.getRating();
+        if (count == 0) {
+            min = rating;
+            max = rating;
+        } else {
+            min = Math.min(min, rating);
+            max = Math.max(max, rating);
+        }
+        count++;
+        sum += rating;
+        histogram[ReviewAggregateStore.bin(rating)]++;
+    }
+
+    public ReviewSummary summary(long movieInfoId) {
+        return new ReviewSummary(movieInfoId, count, count == 0 ? 0 : sum / count, min, max, histogram.clone());
+    }
+}
@@ -0,0 +1,23 @@
+package io.jay.reactorsamples.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import io.jay.reactorsamples.util.StringDictionary;
+
+import java.io.IOException;
+
+/**
+ * decodes strings through the shared StringDictionary so repeated cast names share one instance
+ */
+public class CanonicalStringDeserializer extends StdScalarDeserializer<String> {
+
+    public CanonicalStringDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        return StringDictionary.shared().canonicalize(parser.getValueAsString());
+    }
+}
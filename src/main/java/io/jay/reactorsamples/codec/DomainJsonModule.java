@@ -0,0 +1,468 @@
+package io.jay.reactorsamples.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.jay.reactorsamples.domain.Movie;
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.domain.Revenue;
+import io.jay.reactorsamples.domain.Review;
+import io.jay.reactorsamples.domain.ReviewSummary;
+import io.jay.reactorsamples.util.StringDictionary;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written streaming serializers and deserializers for the domain classes. They read tokens straight
+ * into the Lombok beans (no bean introspection or reflective setters) and canonicalize cast names
+ * through the shared StringDictionary. release_date is written as an ISO date and read from an ISO string,
+ * a [year, month, day] array or an epoch day. Unknown fields are skipped.
+ */
+public class DomainJsonModule extends SimpleModule {
+
+    public DomainJsonModule() {
+        super("DomainJsonModule");
+        addSerializer(MovieInfo.class, new MovieInfoSerializer());
+        addDeserializer(MovieInfo.class, new MovieInfoDeserializer());
+        addSerializer(Review.class, new ReviewSerializer());
+        addDeserializer(Review.class, new ReviewDeserializer());
+        addSerializer(Revenue.class, new RevenueSerializer());
+        addDeserializer(Revenue.class, new RevenueDeserializer());
+        addSerializer(Movie.class, new MovieSerializer());
+        addDeserializer(Movie.class, new MovieDeserializer());
+    }
+
+    static class MovieInfoSerializer extends StdSerializer<MovieInfo> {
+        MovieInfoSerializer() {
+            super(MovieInfo.class);
+        }
+
+        @Override
+        public void serialize(MovieInfo movieInfo, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeLong(gen, "movieInfoId", movieInfo.getMovieInfoId());
+            gen.writeStringField("name", movieInfo.getName());
+            writeInteger(gen, "year", movieInfo.getYear());
+            gen.writeFieldName("cast");
+            if (movieInfo.getCast() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray();
+                for (String castMember : movieInfo.getCast()) {
+                    gen.writeString(castMember);
+                }
+                gen.writeEndArray();
+            }
+            gen.writeFieldName("release_date");
+            if (movieInfo.getRelease_date() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeString(movieInfo.getRelease_date().toString());
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    static class MovieInfoDeserializer extends StdDeserializer<MovieInfo> {
+        MovieInfoDeserializer() {
+            super(MovieInfo.class);
+        }
+
+        @Override
+        public MovieInfo deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            expectStartObject(parser, context, MovieInfo.class);
+            var movieInfo = new MovieInfo();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "movieInfoId":
+                        movieInfo.setMovieInfoId(readLong(parser, context));
+                        break;
+                    case "name":
+                        movieInfo.setName(readString(parser, context));
+                        break;
+                    case "year":
+                        movieInfo.setYear(readInteger(parser, context));
+                        break;
+                    case "cast":
+                        movieInfo.setCast(readCast(parser, context));
+                        break;
+                    case "release_date":
+                        movieInfo.setRelease_date(readLocalDate(parser, context));
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            return movieInfo;
+        }
+
+        private static List<String> readCast(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                return context.reportInputMismatch(List.class, "cast must be an array");
+            }
+            var cast = new ArrayList<String>(4);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                cast.add(StringDictionary.shared().canonicalize(readString(parser, context)));
+            }
+            return cast;
+        }
+    }
+
+    static class ReviewSerializer extends StdSerializer<Review> {
+        ReviewSerializer() {
+            super(Review.class);
+        }
+
+        @Override
+        public void serialize(Review review, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeLong(gen, "reviewId", review.getReviewId());
+            writeLong(gen, "movieInfoId", review.getMovieInfoId());
+            gen.writeStringField("comment", review.getComment());
+            gen.writeFieldName("rating");
+            if (review.getRating() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(review.getRating());
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    static class ReviewDeserializer extends StdDeserializer<Review> {
+        ReviewDeserializer() {
+            super(Review.class);
+        }
+
+        @Override
+        public Review deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            expectStartObject(parser, context, Review.class);
+            var review = new Review();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "reviewId":
+                        review.setReviewId(readLong(parser, context));
+                        break;
+                    case "movieInfoId":
+                        review.setMovieInfoId(readLong(parser, context));
+                        break;
+                    case "comment":
+                        review.setComment(readString(parser, context));
+                        break;
+                    case "rating":
+                        review.setRating(readDouble(parser, context));
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            return review;
+        }
+    }
+
+    static class RevenueSerializer extends StdSerializer<Revenue> {
+        RevenueSerializer() {
+            super(Revenue.class);
+        }
+
+        @Override
+        public void serialize(Revenue revenue, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeLong(gen, "movieInfoId", revenue.getMovieInfoId());
+            gen.writeNumberField("budget", revenue.getBudget());
+            gen.writeNumberField("boxOffice", revenue.getBoxOffice());
+            gen.writeEndObject();
+        }
+    }
+
+    static class RevenueDeserializer extends StdDeserializer<Revenue> {
+        RevenueDeserializer() {
+            super(Revenue.class);
+        }
+
+        @Override
+        public Revenue deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            expectStartObject(parser, context, Revenue.class);
+            var revenue = new Revenue();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "movieInfoId":
+                        revenue.setMovieInfoId(readLong(parser, context));
+                        break;
+                    case "budget":
+                        revenue.setBudget(readPrimitiveDouble(parser, context));
+                        break;
+                    case "boxOffice":
+                        revenue.setBoxOffice(readPrimitiveDouble(parser, context));
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            return revenue;
+        }
+    }
+
+    static class MovieSerializer extends StdSerializer<Movie> {
+        private final MovieInfoSerializer movieInfoSerializer = new MovieInfoSerializer();
+        private final ReviewSerializer reviewSerializer = new ReviewSerializer();
+        private final RevenueSerializer revenueSerializer = new RevenueSerializer();
+
+        MovieSerializer() {
+            super(Movie.class);
+        }
+
+        @Override
+        public void serialize(Movie movie, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName("movieInfo");
+            if (movie.getMovieInfo() == null) {
+                gen.writeNull();
+            } else {
+                movieInfoSerializer.serialize(movie.getMovieInfo(), gen, provider);
+            }
+            gen.writeFieldName("reviewList");
+            if (movie.getReviewList() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray();
+                for (Review review : movie.getReviewList()) {
+                    reviewSerializer.serialize(review, gen, provider);
+                }
+                gen.writeEndArray();
+            }
+            gen.writeFieldName("revenue");
+            if (movie.getRevenue() == null) {
+                gen.writeNull();
+            } else {
+                revenueSerializer.serialize(movie.getRevenue(), gen, provider);
+            }
+            /* rarely present, left to databind */
+            provider.defaultSerializeField("reviewSummary", movie.getReviewSummary(), gen);
+            gen.writeEndObject();
+        }
+    }
+
+    static class MovieDeserializer extends StdDeserializer<Movie> {
+        private final MovieInfoDeserializer movieInfoDeserializer = new MovieInfoDeserializer();
+        private final ReviewDeserializer reviewDeserializer = new ReviewDeserializer();
+        private final RevenueDeserializer revenueDeserializer = new RevenueDeserializer();
+
+        MovieDeserializer() {
+            super(Movie.class);
+        }
+
+        @Override
+        public Movie deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            expectStartObject(parser, context, Movie.class);
+            var movie = new Movie();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.getCurrentName();
+                var token = parser.nextToken();
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "movieInfo":
+                        movie.setMovieInfo(movieInfoDeserializer.deserialize(parser, context));
+                        break;
+                    case "reviewList":
+                        movie.setReviewList(readReviews(parser, context));
+                        break;
+                    case "revenue":
+                        movie.setRevenue(revenueDeserializer.deserialize(parser, context));
+                        break;
+                    case "reviewSummary":
+                        movie.setReviewSummary(context.readValue(parser, ReviewSummary.class));
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            return movie;
+        }
+
+        private List<Review> readReviews(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                return context.reportInputMismatch(List.class, "reviewList must be an array");
+            }
+            var reviews = new ArrayList<Review>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                reviews.add(reviewDeserializer.deserialize(parser, context));
+            }
+            return reviews;
+        }
+    }
+
+    private static void expectStartObject(JsonParser parser, DeserializationContext context, Class<?> type) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            context.reportInputMismatch(type, "expected an object for %s but got %s", type.getSimpleName(), parser.currentToken());
+        }
+    }
+
+    private static void writeLong(JsonGenerator gen, String field, Long value) throws IOException {
+        gen.writeFieldName(field);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeInteger(JsonGenerator gen, String field, Integer value) throws IOException {
+        gen.writeFieldName(field);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    /**
+     * numbers and numeric strings, like databind; anything else is a mismatch instead of a silent 0
+     */
+    private static Long readLong(JsonParser parser, DeserializationContext context) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+                return parser.getLongValue();
+            case VALUE_STRING:
+                var text = parser.getText().trim();
+                try {
+                    return Long.parseLong(text);
+                } catch (NumberFormatException ex) {
+                    throw context.weirdStringException(text, Long.class, "not a valid Long value");
+                }
+            default:
+                return context.reportInputMismatch(Long.class, "unexpected token %s, expected a Long value", parser.currentToken());
+        }
+    }
+
+    private static Integer readInteger(JsonParser parser, DeserializationContext context) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+                return parser.getIntValue();
+            case VALUE_STRING:
+                var text = parser.getText().trim();
+                try {
+                    return Integer.parseInt(text);
+                } catch (NumberFormatException ex) {
+                    throw context.weirdStringException(text, Integer.class, "not a valid Integer value");
+                }
+            default:
+                return context.reportInputMismatch(Integer.class, "unexpected token %s, expected an Integer value", parser.currentToken());
+        }
+    }
+
+    /**
+     * any scalar is read as its text, an object or array is a mismatch instead of leaving the parser inside it
+     */
+    private static String readString(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            return context.reportInputMismatch(String.class, "unexpected token %s, expected a String value", parser.currentToken());
+        }
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+    }
+
+    private static Double readDouble(JsonParser parser, DeserializationContext context) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_STRING:
+                var text = parser.getText().trim();
+                try {
+                    return Double.parseDouble(text);
+                } catch (NumberFormatException ex) {
+                    throw context.weirdStringException(text, Double.class, "not a valid Double value");
+                }
+            default:
+                return context.reportInputMismatch(Double.class, "unexpected token %s, expected a Double value", parser.currentToken());
+        }
+    }
+
+    /**
+     * null reads as 0 like databind does for primitives
+     */
+    private static double readPrimitiveDouble(JsonParser parser, DeserializationContext context) throws IOException {
+        var value = readDouble(parser, context);
+        return value == null ? 0 : value;
+    }
+
+    private static LocalDate readLocalDate(JsonParser parser, DeserializationContext context) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                return parseIsoDate(parser.getText());
+            case VALUE_NUMBER_INT:
+                return LocalDate.ofEpochDay(parser.getLongValue());
+            case START_ARRAY:
+                int year = nextDatePart(parser, context);
+                int month = nextDatePart(parser, context);
+                int day = nextDatePart(parser, context);
+                if (parser.nextToken() != JsonToken.END_ARRAY) {
+                    return context.reportInputMismatch(LocalDate.class, "release_date array must be [year, month, day], found %s after the day", parser.currentToken());
+                }
+                return LocalDate.of(year, month, day);
+            default:
+                return context.reportInputMismatch(LocalDate.class, "unexpected token %s for release_date", parser.currentToken());
+        }
+    }
+
+    private static int nextDatePart(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.nextToken() != JsonToken.VALUE_NUMBER_INT) {
+            return context.reportInputMismatch(LocalDate.class, "release_date array must be [year, month, day], found %s", parser.currentToken());
+        }
+        return parser.getIntValue();
+    }
+
+    /**
+     * fast path for yyyy-MM-dd, anything else goes through LocalDate.parse
+     */
+    static LocalDate parseIsoDate(String text) {
+        if (text.length() == 10 && text.charAt(4) == '-' && text.charAt(7) == '-') {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return LocalDate.parse(text);
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
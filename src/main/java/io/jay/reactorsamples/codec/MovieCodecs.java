@@ -0,0 +1,75 @@
+package io.jay.reactorsamples.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jay.reactorsamples.util.Deadline;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.CodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Binary (Smile) codecs for Movie, MovieInfo and Review. Smile keeps Jackson's data model, so the same
+ * annotations and java time handling apply, but skips text parsing of numbers and dates.
+ * JSON stays registered as the fallback for peers that do not accept Smile.
+ * The codecs registered on WebClient and WebFlux use the hand-written DomainJsonModule instead of
+ * reflective databind, jsonMapper() and smileMapper() are kept as the plain databind baseline.
+ */
+public class MovieCodecs {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    public static ObjectMapper jsonMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    public static ObjectMapper smileMapper() {
+        return Jackson2ObjectMapperBuilder.smile().build();
+    }
+
+    public static ObjectMapper precompiledJsonMapper() {
+        return Jackson2ObjectMapperBuilder.json().modulesToInstall(new DomainJsonModule()).build();
+    }
+
+    public static ObjectMapper precompiledSmileMapper() {
+        return Jackson2ObjectMapperBuilder.smile().modulesToInstall(new DomainJsonModule()).build();
+    }
+
+    /**
+     * registered for application/x-jackson-smile only, the default application/*+x-jackson-smile wildcard
+     * would also claim application/json ahead of the JSON codecs
+     */
+    public static void registerBinaryCodecs(CodecConfigurer configurer) {
+        var smileMapper = precompiledSmileMapper();
+        configurer.customCodecs().register(new Jackson2SmileDecoder(smileMapper, APPLICATION_SMILE));
+        configurer.customCodecs().register(new Jackson2SmileEncoder(smileMapper, APPLICATION_SMILE));
+    }
+
+    /**
+     * replaces the default JSON codecs so domain types skip bean introspection when decoding DataBuffers
+     */
+    public static void registerPrecompiledJsonCodecs(CodecConfigurer configurer) {
+        var jsonMapper = precompiledJsonMapper();
+        configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(jsonMapper));
+        configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(jsonMapper));
+    }
+
+    public static void registerCodecs(CodecConfigurer configurer) {
+        registerPrecompiledJsonCodecs(configurer);
+        registerBinaryCodecs(configurer);
+    }
+
+    /**
+     * WebClient that asks for Smile first and JSON second and forwards the request Deadline
+     */
+    public static WebClient.Builder binaryWebClientBuilder() {
+        return WebClient.builder()
+                .codecs(MovieCodecs::registerCodecs)
+                .filter(Deadline.propagatingFilter())
+                .defaultHeader(HttpHeaders.ACCEPT, APPLICATION_SMILE + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.9");
+    }
+}
@@ -0,0 +1,199 @@
+package io.jay.reactorsamples.concurrency;
+
+import io.jay.reactorsamples.exception.AdmissionRejectedException;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AIMD concurrency limit for calls to a backend. A call only subscribes to its source once it holds a permit,
+ * later calls wait in FIFO order. A call that completes within latencyThreshold while at least half the limit is
+ * in use grows the limit by one, an error or a slower call multiplies it by backoffRatio.
+ * Permits are granted synchronously when one is free, so an idle limiter does not reorder or delay anything.
+ * At most maxWaiters calls wait for a permit (maxLimit unless given), later ones fail with
+ * AdmissionRejectedException instead of piling up.
+ */
+@Log4j2
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxWaiters;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter() {
+        this(32, 1, 256, Duration.ofMillis(500), 0.9);
+    }
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio, maxLimit);
+    }
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio,
+                                      int maxWaiters) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        if (maxWaiters < 0) {
+            throw new IllegalArgumentException("maxWaiters must not be negative");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxWaiters = maxWaiters;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+    }
+
+    public <T> Flux<T> limit(Flux<T> call) {
+        return Flux.usingWhen(acquire(), permit -> call,
+                permit -> Mono.fromRunnable(permit::succeeded),
+                (permit, ex) -> Mono.fromRunnable(permit::failed),
+                permit -> Mono.fromRunnable(permit::cancelled));
+    }
+
+    public <T> Mono<T> limit(Mono<T> call) {
+        return Mono.usingWhen(acquire(), permit -> call,
+                permit -> Mono.fromRunnable(permit::succeeded),
+                (permit, ex) -> Mono.fromRunnable(permit::failed),
+                permit -> Mono.fromRunnable(permit::cancelled));
+    }
+
+    public synchronized int currentLimit() {
+        return (int) limit;
+    }
+
+    public int maxLimit() {
+        return maxLimit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int waiting() {
+        return waiters.size();
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            var waiter = new Waiter(sink);
+            boolean full = false;
+            synchronized (this) {
+                if (inFlight < (int) limit) {
+                    inFlight++;
+                    waiter.granted = new Permit();
+                } else if (waiters.size() < maxWaiters) {
+                    waiters.add(waiter);
+                } else {
+                    full = true;
+                }
+            }
+            if (full) {
+                sink.error(new AdmissionRejectedException("concurrency limit reached and " + maxWaiters + " calls already waiting"));
+                return;
+            }
+            /* runs right away if the subscriber cancelled before the permit was requested */
+            sink.onCancel(() -> abandon(waiter));
+            if (waiter.granted != null) {
+                sink.success(waiter.granted);
+            }
+        });
+    }
+
+    private void abandon(Waiter waiter) {
+        synchronized (this) {
+            if (waiters.remove(waiter)) {
+                return;
+            }
+        }
+        /* cancelled after a permit was granted but before the call subscribed to it */
+        if (waiter.granted != null) {
+            waiter.granted.cancelled();
+        }
+    }
+
+    private void release(Permit permit, Boolean success) {
+        Waiter next = null;
+        synchronized (this) {
+            if (success != null) {
+                adjust(permit, success);
+            }
+            inFlight--;
+            if (inFlight < (int) limit && !waiters.isEmpty()) {
+                inFlight++;
+                next = waiters.poll();
+                next.granted = new Permit();
+            }
+        }
+        if (next != null) {
+            next.sink.success(next.granted);
+        }
+    }
+
+    private void adjust(Permit permit, boolean success) {
+        int before = (int) limit;
+        long latency = now() - permit.startNanos;
+        if (!success || latency > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+        if ((int) limit != before) {
+            log.debug("concurrency limit {} -> {}", before, (int) limit);
+        }
+    }
+
+    private static long now() {
+        return Schedulers.parallel().now(TimeUnit.NANOSECONDS);
+    }
+
+    private static class Waiter {
+        final MonoSink<Permit> sink;
+        volatile Permit granted;
+
+        Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private class Permit {
+        final long startNanos = now();
+        final AtomicBoolean released = new AtomicBoolean();
+
+        void succeeded() {
+            release(true);
+        }
+
+        void failed() {
+            release(false);
+        }
+
+        /**
+         * a cancelled call says nothing about the backend
+         */
+        void cancelled() {
+            release(null);
+        }
+
+        private void release(Boolean success) {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.release(this, success);
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package io.jay.reactorsamples.concurrency;
+
+import io.jay.reactorsamples.exception.AdmissionRejectedException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control in front of the movie service. Every Lane has its own concurrency budget and FIFO queue,
+ * so batch work can never take the permits interactive requests need. A request that would have to queue is
+ * rejected with AdmissionRejectedException (503) on arrival when the lane queue is full, when the oldest queued
+ * request has already waited longer than the lane's queue time target, or when the queue length times the
+ * average service time says it would. A queued request is rejected as soon as it has waited for the target,
+ * whether or not a permit frees up meanwhile. Queue time is recorded per lane for every admitted request.
+ */
+public class AdmissionController {
+
+    private final Map<Lane, Gate> gates = new EnumMap<>(Lane.class);
+
+    public AdmissionController() {
+        this(64, 256, Duration.ofMillis(50), 4, 16, Duration.ofSeconds(2));
+    }
+
+    public AdmissionController(int interactiveConcurrency, int interactiveQueue, Duration interactiveQueueTarget,
+                               int batchConcurrency, int batchQueue, Duration batchQueueTarget) {
+        gates.put(Lane.INTERACTIVE, new Gate(Lane.INTERACTIVE, interactiveConcurrency, interactiveQueue, interactiveQueueTarget));
+        gates.put(Lane.BATCH, new Gate(Lane.BATCH, batchConcurrency, batchQueue, batchQueueTarget));
+    }
+
+    public <T> Mono<T> admit(Lane lane, Mono<T> request) {
+        var gate = gates.get(lane);
+        return Mono.usingWhen(gate.acquire(), ticket -> request, Ticket::release, (ticket, ex) -> ticket.release(), Ticket::release);
+    }
+
+    public <T> Flux<T> admit(Lane lane, Flux<T> request) {
+        var gate = gates.get(lane);
+        return Flux.usingWhen(gate.acquire(), ticket -> request, Ticket::release, (ticket, ex) -> ticket.release(), Ticket::release);
+    }
+
+    public LaneStats stats(Lane lane) {
+        return gates.get(lane).stats();
+    }
+
+    private static long now() {
+        return Schedulers.parallel().now(TimeUnit.NANOSECONDS);
+    }
+
+    private static class Gate {
+        final Lane lane;
+        final int maxConcurrency;
+        final int maxQueue;
+        final Duration queueTarget;
+        final long queueTargetNanos;
+        final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+        int inFlight;
+        /* moving average of how long an admitted request holds its ticket, 0 until one completes */
+        long serviceNanos;
+        long admitted;
+        long rejected;
+        long totalQueueNanos;
+        long maxQueueNanos;
+
+        Gate(Lane lane, int maxConcurrency, int maxQueue, Duration queueTarget) {
+            if (maxConcurrency < 1 || maxQueue < 0) {
+                throw new IllegalArgumentException("lane " + lane + " needs a positive concurrency and a non negative queue");
+            }
+            this.lane = lane;
+            this.maxConcurrency = maxConcurrency;
+            this.maxQueue = maxQueue;
+            this.queueTarget = queueTarget;
+            this.queueTargetNanos = queueTarget.toNanos();
+        }
+
+        Mono<Ticket> acquire() {
+            return Mono.create(sink -> {
+                long now = now();
+                var waiter = new Waiter(sink, now);
+                String rejectedBecause = null;
+                synchronized (this) {
+                    if (inFlight < maxConcurrency && waiters.isEmpty()) {
+                        inFlight++;
+                        admitted++;
+                        waiter.granted = new Ticket(this, now);
+                    } else if (waiters.size() >= maxQueue) {
+                        rejectedBecause = "queue full";
+                    } else if (!waiters.isEmpty() && now - waiters.peekFirst().enqueuedNanos > queueTargetNanos) {
+                        rejectedBecause = "oldest queued request waited longer than " + queueTarget.toMillis() + " ms";
+                    } else if ((waiters.size() + 1) * serviceNanos / maxConcurrency > queueTargetNanos) {
+                        rejectedBecause = "estimated queue time above " + queueTarget.toMillis() + " ms";
+                    } else {
+                        waiters.add(waiter);
+                    }
+                    if (rejectedBecause != null) {
+                        rejected++;
+                    }
+                }
+                if (rejectedBecause != null) {
+                    sink.error(rejection(rejectedBecause));
+                    return;
+                }
+                /* runs right away if the subscriber cancelled before the ticket was requested */
+                sink.onCancel(() -> abandon(waiter));
+                if (waiter.granted != null) {
+                    sink.success(waiter.granted);
+                } else {
+                    var timer = Schedulers.parallel().schedule(() -> expire(waiter), queueTargetNanos, TimeUnit.NANOSECONDS);
+                    sink.onDispose(timer);
+                }
+            });
+        }
+
+        private AdmissionRejectedException rejection(String reason) {
+            return new AdmissionRejectedException(lane + " lane rejected request: " + reason);
+        }
+
+        /**
+         * fails a waiter still queued once the queue target has passed, even if no ticket is released meanwhile
+         */
+        private void expire(Waiter waiter) {
+            synchronized (this) {
+                if (!waiters.remove(waiter)) {
+                    return;
+                }
+                rejected++;
+            }
+            waiter.sink.error(rejection("queued longer than " + queueTarget.toMillis() + " ms"));
+        }
+
+        private void abandon(Waiter waiter) {
+            synchronized (this) {
+                if (waiters.remove(waiter)) {
+                    return;
+                }
+            }
+            if (waiter.granted != null) {
+                waiter.granted.release().subscribe();
+            }
+        }
+
+        void release(Ticket ticket) {
+            Waiter next = null;
+            List<Waiter> expired = null;
+            synchronized (this) {
+                long now = now();
+                long held = now - ticket.admittedNanos;
+                serviceNanos = serviceNanos == 0 ? held : serviceNanos + (held - serviceNanos) / 8;
+                inFlight--;
+                while (next == null && inFlight < maxConcurrency && !waiters.isEmpty()) {
+                    var head = waiters.poll();
+                    long queued = now - head.enqueuedNanos;
+                    if (queued > queueTargetNanos) {
+                        rejected++;
+                        if (expired == null) {
+                            expired = new ArrayList<>();
+                        }
+                        expired.add(head);
+                        continue;
+                    }
+                    next = head;
+                    inFlight++;
+                    admitted++;
+                    totalQueueNanos += queued;
+                    maxQueueNanos = Math.max(maxQueueNanos, queued);
+                    next.granted = new Ticket(this, now);
+                }
+            }
+            if (expired != null) {
+                for (Waiter waiter : expired) {
+                    waiter.sink.error(rejection("queued longer than " + queueTarget.toMillis() + " ms"));
+                }
+            }
+            if (next != null) {
+                next.sink.success(next.granted);
+            }
+        }
+
+        synchronized LaneStats stats() {
+            var average = admitted == 0 ? Duration.ZERO : Duration.ofNanos(totalQueueNanos / admitted);
+            return new LaneStats(lane, admitted, rejected, inFlight, waiters.size(), average, Duration.ofNanos(maxQueueNanos));
+        }
+    }
+
+    private static class Waiter {
+        final MonoSink<Ticket> sink;
+        final long enqueuedNanos;
+        volatile Ticket granted;
+
+        Waiter(MonoSink<Ticket> sink, long enqueuedNanos) {
+            this.sink = sink;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    private static class Ticket {
+        final Gate gate;
+        final long admittedNanos;
+        final AtomicBoolean released = new AtomicBoolean();
+
+        Ticket(Gate gate, long admittedNanos) {
+            this.gate = gate;
+            this.admittedNanos = admittedNanos;
+        }
+
+        Mono<Void> release() {
+            return Mono.fromRunnable(() -> {
+                if (released.compareAndSet(false, true)) {
+                    gate.release(this);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package io.jay.reactorsamples.concurrency;
+
+public enum Lane {
+    INTERACTIVE,
+    BATCH
+}
@@ -0,0 +1,20 @@
+package io.jay.reactorsamples.concurrency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LaneStats {
+    private Lane lane;
+    private long admitted;
+    private long rejected;
+    private int inFlight;
+    private int queued;
+    private Duration averageQueueTime;
+    private Duration maxQueueTime;
+}
@@ -0,0 +1,20 @@
+package io.jay.reactorsamples.config;
+
+import io.jay.reactorsamples.codec.MovieCodecs;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the DomainJsonModule JSON codecs and the Smile codecs through a CodecCustomizer, which Spring Boot
+ * applies both to WebFlux endpoints (Smile when the client accepts it, JSON otherwise) and to the
+ * auto-configured WebClient.Builder, so WebClients built from it decode without reflective databind.
+ */
+@Configuration
+public class CodecConfiguration {
+
+    @Bean
+    public CodecCustomizer movieCodecCustomizer() {
+        return MovieCodecs::registerCodecs;
+    }
+}
@@ -0,0 +1,32 @@
+package io.jay.reactorsamples.config;
+
+import io.jay.reactorsamples.util.Deadline;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * starts the request Deadline from the budget a client sends in the Deadline.HEADER header
+ */
+@Component
+public class DeadlineWebFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var remaining = exchange.getRequest().getHeaders().getFirst(Deadline.HEADER);
+        if (remaining == null) {
+            return chain.filter(exchange);
+        }
+        long millis;
+        try {
+            millis = Long.parseLong(remaining.trim());
+        } catch (NumberFormatException ex) {
+            return chain.filter(exchange);
+        }
+        return Deadline.withBudget(chain.filter(exchange), Duration.ofMillis(Math.max(0, millis)));
+    }
+}
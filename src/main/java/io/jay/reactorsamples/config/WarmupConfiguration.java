@@ -0,0 +1,83 @@
+package io.jay.reactorsamples.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jay.reactorsamples.codec.MovieCodecs;
+import io.jay.reactorsamples.domain.Movie;
+import io.jay.reactorsamples.service.MovieInfoService;
+import io.jay.reactorsamples.service.MovieReactiveService;
+import io.jay.reactorsamples.service.ReviewService;
+import io.jay.reactorsamples.warmup.JitWarmup;
+import lombok.extern.log4j.Log4j2;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Drives the movie aggregation pipelines and the JSON/Smile codecs against the in-memory services before
+ * the application reports readiness. Runners complete before Spring Boot publishes ACCEPTING_TRAFFIC,
+ * so readiness stays REFUSING_TRAFFIC for the whole warm-up. Enable with warmup.enabled=true.
+ */
+@Log4j2
+@Configuration
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true")
+public class WarmupConfiguration {
+
+    @Bean
+    public JitWarmup jitWarmup(@Value("${warmup.budget:60s}") Duration budget) {
+        var movieReactiveService = new MovieReactiveService(new MovieInfoService(), new ReviewService());
+        var jsonMapper = MovieCodecs.precompiledJsonMapper();
+        var smileMapper = MovieCodecs.precompiledSmileMapper();
+
+        List<Supplier<? extends Publisher<?>>> scenarios = List.of(
+                () -> movieReactiveService.getAllMovies().collectList(),
+                () -> movieReactiveService.getAllMoviesWithReviewSummary().collectList(),
+                () -> movieReactiveService.getMovieById(100L),
+                () -> movieReactiveService.getMovieByIdWithReviewSummary(101L),
+                () -> movieReactiveService.getMovieById(102L)
+                        .map(movie -> roundTrip(jsonMapper, movie))
+                        .map(movie -> roundTrip(smileMapper, movie)));
+        return new JitWarmup(scenarios, budget);
+    }
+
+    @Bean
+    public ApplicationRunner jitWarmupRunner(JitWarmup jitWarmup, ApplicationEventPublisher publisher, LoggingSystem loggingSystem) {
+        return args -> {
+            AvailabilityChangeEvent.publish(publisher, jitWarmup, ReadinessState.REFUSING_TRAFFIC);
+            /* the pipelines use log(), keep warm-up traffic out of the logs */
+            var reactorLogger = loggingSystem.getLoggerConfiguration("reactor");
+            loggingSystem.setLogLevel("reactor", LogLevel.WARN);
+            try {
+                jitWarmup.run()
+                        .onErrorResume(ex -> {
+                            log.error("warm-up failed, continuing cold: {}", ex.getMessage());
+                            return Mono.empty();
+                        })
+                        .block();
+            } finally {
+                loggingSystem.setLogLevel("reactor", reactorLogger == null ? null : reactorLogger.getConfiguredLevel());
+            }
+        };
+    }
+
+    private static Movie roundTrip(ObjectMapper mapper, Movie movie) {
+        try {
+            return mapper.readValue(mapper.writeValueAsBytes(movie), Movie.class);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
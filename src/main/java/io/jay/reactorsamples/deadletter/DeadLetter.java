@@ -0,0 +1,19 @@
+package io.jay.reactorsamples.deadletter;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * a failed element as written to the dead-letter log, element holds the element encoded as JSON
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetter {
+    private long timestampMillis;
+    private String elementType;
+    private String element;
+    private String errorType;
+    private String errorMessage;
+}
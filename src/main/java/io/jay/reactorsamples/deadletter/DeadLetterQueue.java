@@ -0,0 +1,328 @@
+package io.jay.reactorsamples.deadletter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jay.reactorsamples.codec.MovieCodecs;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Captures elements dropped by onErrorContinue together with their error. offer() only puts the element on a
+ * bounded in-memory queue (never blocks, counts a drop when full). A single writer thread drains it every
+ * flushInterval, encodes the batch as JSON lines and appends it to the current segment file
+ * (dead-letters-00000001.log, ...), rolling to a new segment after segmentBytes.
+ * replay() closes the current segment and reads the segments it has not replayed yet back in order so the elements
+ * can be fed into a pipeline again, dead letters offered meanwhile go to the next segment. Once a replay completes,
+ * the last segment it read is stored in replay-offsets.properties, so later replays (also after a restart) skip it.
+ * A replay that errors or is cancelled leaves the offset alone and its letters are replayed again.
+ * replay() and each replay(type) keep their own offset.
+ * Elements are encoded on the writer thread, so they must not be mutated after they failed.
+ */
+@Log4j2
+public class DeadLetterQueue implements Disposable {
+
+    private static final String SEGMENT_PREFIX = "dead-letters-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String OFFSETS_FILE = "replay-offsets.properties";
+    private static final String ALL_TYPES = "*";
+
+    private final Path directory;
+    private final int batchSize;
+    private final long segmentBytes;
+    private final ObjectMapper mapper;
+    private final ArrayBlockingQueue<Pending> queue;
+    private final Scheduler writer;
+    private final Disposable periodicDrain;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private BufferedWriter segment;
+    private int segmentNumber;
+    private long segmentSize;
+    private Properties offsets;
+
+    public DeadLetterQueue(Path directory) {
+        this(directory, 10_000, 512, Duration.ofMillis(200), 16 * 1024 * 1024);
+    }
+
+    public DeadLetterQueue(Path directory, int capacity, int batchSize, Duration flushInterval, long segmentBytes) {
+        this.directory = directory;
+        this.batchSize = batchSize;
+        this.segmentBytes = segmentBytes;
+        this.mapper = MovieCodecs.jsonMapper();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = Schedulers.newSingle("dead-letter", true);
+        this.periodicDrain = writer.schedulePeriodically(this::drain, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * non-blocking, false (and a drop) when the queue is full
+     */
+    public boolean offer(Object element, Throwable error) {
+        if (queue.offer(new Pending(System.currentTimeMillis(), element, error))) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * for onErrorContinue
+     */
+    public BiConsumer<Throwable, Object> errorConsumer() {
+        return (error, element) -> offer(element, error);
+    }
+
+    /**
+     * completes once everything offered so far is on disk
+     */
+    public Mono<Void> flush() {
+        return Mono.<Void>fromRunnable(this::drain).subscribeOn(writer);
+    }
+
+    public Flux<DeadLetter> replay() {
+        return replay(ALL_TYPES);
+    }
+
+    private Flux<DeadLetter> replay(String cursor) {
+        return Mono.fromCallable(() -> sealSegments(cursor))
+                .subscribeOn(writer)
+                .flatMapMany(segments -> Flux.fromIterable(segments)
+                        .concatMap(path -> Flux.using(() -> Files.lines(path, StandardCharsets.UTF_8), Flux::fromStream, Stream::close)
+                                .subscribeOn(Schedulers.boundedElastic()))
+                        .filter(line -> !line.isBlank())
+                        .map(this::decode)
+                        .concatWith(segments.isEmpty()
+                                ? Mono.empty()
+                                : Mono.<DeadLetter>fromRunnable(() -> commitOffset(cursor, segmentNumberOf(segments.get(segments.size() - 1))))
+                                        .subscribeOn(writer)));
+    }
+
+    /**
+     * replays only the dead letters whose element was of the given type, decoded back into it
+     */
+    public <T> Flux<T> replay(Class<T> type) {
+        return replay(type.getName())
+                .filter(letter -> type.getName().equals(letter.getElementType()))
+                .map(letter -> {
+                    try {
+                        return mapper.readValue(letter.getElement(), type);
+                    } catch (JsonProcessingException ex) {
+                        throw new IllegalStateException("cannot decode dead letter element as " + type.getName(), ex);
+                    }
+                });
+    }
+
+    public long written() {
+        return written.get();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void dispose() {
+        periodicDrain.dispose();
+        Mono.fromRunnable(() -> {
+                    drain();
+                    closeSegment();
+                })
+                .subscribeOn(writer)
+                .block();
+        writer.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return writer.isDisposed();
+    }
+
+    /**
+     * runs on the writer thread, closes the current segment so replay never reads a batch still being appended
+     */
+    private List<Path> sealSegments(String cursor) throws IOException {
+        drain();
+        closeSegment();
+        long replayed = Long.parseLong(offsets().getProperty(cursor, "0"));
+        return segments().stream()
+                .filter(path -> segmentNumberOf(path) > replayed)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * runs on the writer thread only, writes a temp file and moves it over the old one so a crash keeps either
+     */
+    private void commitOffset(String cursor, int lastSegment) {
+        try {
+            var offsets = offsets();
+            long replayed = Long.parseLong(offsets.getProperty(cursor, "0"));
+            offsets.setProperty(cursor, Long.toString(Math.max(replayed, lastSegment)));
+            Files.createDirectories(directory);
+            var temp = directory.resolve(OFFSETS_FILE + ".tmp");
+            try (var out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                offsets.store(out, null);
+            }
+            Files.move(temp, directory.resolve(OFFSETS_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Properties offsets() throws IOException {
+        if (offsets == null) {
+            offsets = new Properties();
+            var file = directory.resolve(OFFSETS_FILE);
+            if (Files.exists(file)) {
+                try (var in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    offsets.load(in);
+                }
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * runs on the writer thread only
+     */
+    private void drain() {
+        var batch = new ArrayList<Pending>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            append(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * on an IOException only the lines not written yet are dropped and the segment is closed, so the next batch
+     * starts a fresh one
+     */
+    private void append(List<Pending> batch) {
+        int handled = 0;
+        int appended = 0;
+        try {
+            if (segment == null || segmentSize >= segmentBytes) {
+                rollSegment();
+            }
+            for (Pending pending : batch) {
+                String line;
+                try {
+                    line = encode(pending) + "\n";
+                } catch (JsonProcessingException ex) {
+                    log.warn("dropping dead letter that cannot be encoded: {}", ex.getMessage());
+                    dropped.incrementAndGet();
+                    handled++;
+                    continue;
+                }
+                segment.write(line);
+                segmentSize += line.getBytes(StandardCharsets.UTF_8).length;
+                handled++;
+                appended++;
+            }
+            segment.flush();
+        } catch (IOException ex) {
+            log.error("could not append {} dead letters: {}", batch.size() - handled, ex.getMessage());
+            dropped.addAndGet(batch.size() - handled);
+            closeSegment();
+        }
+        written.addAndGet(appended);
+    }
+
+    private void rollSegment() throws IOException {
+        closeSegment();
+        Files.createDirectories(directory);
+        if (segmentNumber == 0) {
+            var existing = segments();
+            segmentNumber = existing.isEmpty() ? 0 : segmentNumberOf(existing.get(existing.size() - 1));
+        }
+        segmentNumber++;
+        segment = Files.newBufferedWriter(directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, segmentNumber, SEGMENT_SUFFIX)),
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        segmentSize = 0;
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException ex) {
+            log.warn("could not close dead letter segment: {}", ex.getMessage());
+        }
+        segment = null;
+    }
+
+    private List<Path> segments() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (var files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static int segmentNumberOf(Path segment) {
+        var name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private String encode(Pending pending) throws JsonProcessingException {
+        var element = pending.element;
+        var letter = new DeadLetter(pending.timestampMillis,
+                element == null ? null : element.getClass().getName(),
+                mapper.writeValueAsString(element),
+                pending.error == null ? null : pending.error.getClass().getName(),
+                pending.error == null ? null : pending.error.getMessage());
+        return mapper.writeValueAsString(letter);
+    }
+
+    private DeadLetter decode(String line) {
+        try {
+            return mapper.readValue(line, DeadLetter.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("corrupt dead letter line", ex);
+        }
+    }
+
+    private static class Pending {
+        final long timestampMillis;
+        final Object element;
+        final Throwable error;
+
+        Pending(long timestampMillis, Object element, Throwable error) {
+            this.timestampMillis = timestampMillis;
+            this.element = element;
+            this.error = error;
+        }
+    }
+}
@@ -13,10 +13,16 @@ public class Movie {
     private MovieInfo movieInfo;
     private List<Review> reviewList;
     private Revenue revenue;
+    private ReviewSummary reviewSummary;
 
     public Movie(MovieInfo movieInfo, List<Review> reviewList) {
         this.movieInfo = movieInfo;
         this.reviewList = reviewList;
     }
 
+    public Movie(MovieInfo movieInfo, ReviewSummary reviewSummary) {
+        this.movieInfo = movieInfo;
+        this.reviewSummary = reviewSummary;
+    }
+
 }
\ No newline at end of file
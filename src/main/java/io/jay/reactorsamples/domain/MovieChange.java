@@ -0,0 +1,17 @@
+package io.jay.reactorsamples.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieChange {
+    public enum Type {ADDED, UPDATED, REMOVED}
+
+    private Type type;
+    private Long movieInfoId;
+    /* null for REMOVED */
+    private Movie movie;
+}
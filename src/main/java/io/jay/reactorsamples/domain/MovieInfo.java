@@ -1,5 +1,7 @@
 package io.jay.reactorsamples.domain;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.jay.reactorsamples.codec.CanonicalStringDeserializer;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,6 +16,7 @@ public class MovieInfo {
     private Long movieInfoId;
     private String name;
     private Integer year;
+    @JsonDeserialize(contentUsing = CanonicalStringDeserializer.class)
     private List<String> cast;
     private LocalDate release_date;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package io.jay.reactorsamples.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSummary {
+    private Long movieInfoId;
+    private long count;
+    private double average;
+    private double min;
+    private double max;
+    private int[] histogram;
+}
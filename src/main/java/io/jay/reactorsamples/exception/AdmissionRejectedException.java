@@ -0,0 +1,14 @@
+package io.jay.reactorsamples.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AdmissionRejectedException extends CodedException {
+    String message;
+
+    public AdmissionRejectedException(String message) {
+        super(ErrorCode.ADMISSION_REJECTED, message, null, null);
+        this.message = message;
+    }
+}
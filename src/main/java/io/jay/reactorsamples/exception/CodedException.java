@@ -0,0 +1,54 @@
+package io.jay.reactorsamples.exception;
+
+/**
+ * Base of the service exceptions: a compact ErrorCode plus the movie id the failure belongs to (may be null).
+ * Stack traces are captured only while stack trace capture is on (system property
+ * reactorsamples.exceptions.stack-traces, default true). Stackless instances still accept suppressed
+ * exceptions, so checkpoint() and ReactorDebugAgent assembly traces keep showing where a failure travelled.
+ * Preallocated instances (see shared()) have neither a stack trace nor suppressed exceptions and can be
+ * reused safely across threads. stackless() instances never capture a stack trace, whatever the switch says;
+ * they are meant for failures that are retried or mapped away right after being raised.
+ */
+public abstract class CodedException extends RuntimeException {
+
+    private static volatile boolean captureStackTraces =
+            Boolean.parseBoolean(System.getProperty("reactorsamples.exceptions.stack-traces", "true"));
+
+    private final ErrorCode errorCode;
+    private final Long movieId;
+
+    protected CodedException(ErrorCode errorCode, String message, Throwable cause, Long movieId) {
+        this(errorCode, message, cause, movieId, captureStackTraces);
+    }
+
+    protected CodedException(ErrorCode errorCode, String message, Throwable cause, Long movieId, boolean writableStackTrace) {
+        super(message, cause, true, writableStackTrace);
+        this.errorCode = errorCode;
+        this.movieId = movieId;
+    }
+
+    /**
+     * preallocated: immutable, no stack trace, no suppression
+     */
+    protected CodedException(ErrorCode errorCode, String message) {
+        super(message, null, false, false);
+        this.errorCode = errorCode;
+        this.movieId = null;
+    }
+
+    public static boolean isCapturingStackTraces() {
+        return captureStackTraces;
+    }
+
+    public static void setCaptureStackTraces(boolean capture) {
+        captureStackTraces = capture;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    public Long getMovieId() {
+        return movieId;
+    }
+}
@@ -0,0 +1,10 @@
+package io.jay.reactorsamples.exception;
+
+public class DeadlineExceededException extends CodedException {
+    String message;
+
+    public DeadlineExceededException(String message) {
+        super(ErrorCode.DEADLINE_EXCEEDED, message, null, null);
+        this.message = message;
+    }
+}
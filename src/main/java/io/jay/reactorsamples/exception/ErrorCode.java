@@ -0,0 +1,11 @@
+package io.jay.reactorsamples.exception;
+
+public enum ErrorCode {
+    MOVIE_FAILURE,
+    MOVIE_INFO_FAILURE,
+    REVIEW_FAILURE,
+    NETWORK_FAILURE,
+    SERVICE_FAILURE,
+    DEADLINE_EXCEEDED,
+    ADMISSION_REJECTED
+}
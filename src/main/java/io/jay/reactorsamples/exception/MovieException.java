@@ -1,14 +1,38 @@
 package io.jay.reactorsamples.exception;
 
-public class MovieException extends RuntimeException {
+public class MovieException extends CodedException {
+    private static final MovieException SHARED = new MovieException();
+
     String message;
     public MovieException(String message) {
-        super(message);
+        this(message, (Long) null);
+    }
+
+    public MovieException(String message, Long movieId) {
+        super(ErrorCode.MOVIE_FAILURE, message, null, movieId);
         this.message = message;
     }
 
     public MovieException(Throwable ex) {
-        super(ex);
+        super(ErrorCode.MOVIE_FAILURE, ex.toString(), ex, null);
         this.message = ex.getMessage();
     }
+
+    private MovieException() {
+        super(ErrorCode.MOVIE_FAILURE, "movie failure");
+        this.message = "movie failure";
+    }
+
+    private MovieException(String message, Long movieId, boolean writableStackTrace) {
+        super(ErrorCode.MOVIE_FAILURE, message, null, movieId, writableStackTrace);
+        this.message = message;
+    }
+
+    public static MovieException stackless(String message, Long movieId) {
+        return new MovieException(message, movieId, false);
+    }
+
+    public static MovieException shared() {
+        return SHARED;
+    }
 }
@@ -1,11 +1,35 @@
 package io.jay.reactorsamples.exception;
 
-public class MovieInfoException extends RuntimeException {
+public class MovieInfoException extends CodedException {
+    private static final MovieInfoException SHARED = new MovieInfoException();
+
     String message;
 
     public MovieInfoException(String message) {
-        super(message);
+        this(message, null);
+    }
+
+    public MovieInfoException(String message, Long movieId) {
+        super(ErrorCode.MOVIE_INFO_FAILURE, message, null, movieId);
+        this.message = message;
+
+    }
+
+    private MovieInfoException() {
+        super(ErrorCode.MOVIE_INFO_FAILURE, "movie info failure");
+        this.message = "movie info failure";
+    }
+
+    private MovieInfoException(String message, Long movieId, boolean writableStackTrace) {
+        super(ErrorCode.MOVIE_INFO_FAILURE, message, null, movieId, writableStackTrace);
         this.message = message;
+    }
+
+    public static MovieInfoException stackless(String message, Long movieId) {
+        return new MovieInfoException(message, movieId, false);
+    }
 
+    public static MovieInfoException shared() {
+        return SHARED;
     }
 }
@@ -1,15 +1,30 @@
 package io.jay.reactorsamples.exception;
 
-public class NetworkException extends RuntimeException {
+public class NetworkException extends CodedException {
+    private static final NetworkException SHARED = new NetworkException();
+
     String message;
 
     public NetworkException(String message) {
-        super(message);
+        this(message, (Long) null);
+    }
+
+    public NetworkException(String message, Long movieId) {
+        super(ErrorCode.NETWORK_FAILURE, message, null, movieId);
         this.message = message;
     }
 
     public NetworkException(Throwable ex) {
-        super(ex);
-        this.message = message;
+        super(ErrorCode.NETWORK_FAILURE, ex.toString(), ex, null);
+        this.message = ex.getMessage();
+    }
+
+    private NetworkException() {
+        super(ErrorCode.NETWORK_FAILURE, "network failure");
+        this.message = "network failure";
+    }
+
+    public static NetworkException shared() {
+        return SHARED;
     }
 }
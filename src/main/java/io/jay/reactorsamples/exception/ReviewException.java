@@ -1,9 +1,33 @@
 package io.jay.reactorsamples.exception;
 
-public class ReviewException extends RuntimeException {
+public class ReviewException extends CodedException {
+    private static final ReviewException SHARED = new ReviewException();
+
     String message;
     public ReviewException(String message) {
-        super(message);
+        this(message, null);
+    }
+
+    public ReviewException(String message, Long movieId) {
+        super(ErrorCode.REVIEW_FAILURE, message, null, movieId);
+        this.message = message;
+    }
+
+    private ReviewException() {
+        super(ErrorCode.REVIEW_FAILURE, "review failure");
+        this.message = "review failure";
+    }
+
+    private ReviewException(String message, Long movieId, boolean writableStackTrace) {
+        super(ErrorCode.REVIEW_FAILURE, message, null, movieId, writableStackTrace);
         this.message = message;
     }
+
+    public static ReviewException stackless(String message, Long movieId) {
+        return new ReviewException(message, movieId, false);
+    }
+
+    public static ReviewException shared() {
+        return SHARED;
+    }
 }
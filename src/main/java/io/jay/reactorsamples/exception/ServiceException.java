@@ -1,14 +1,38 @@
 package io.jay.reactorsamples.exception;
 
-public class ServiceException extends RuntimeException {
+public class ServiceException extends CodedException {
+    private static final ServiceException SHARED = new ServiceException();
+
     String message;
     public ServiceException(String message) {
-        super(message);
+        this(message, (Long) null);
+    }
+
+    public ServiceException(String message, Long movieId) {
+        super(ErrorCode.SERVICE_FAILURE, message, null, movieId);
         this.message = message;
     }
 
     public ServiceException(Throwable ex) {
-        super(ex);
+        super(ErrorCode.SERVICE_FAILURE, ex.toString(), ex, null);
         this.message = ex.getMessage();
     }
+
+    private ServiceException() {
+        super(ErrorCode.SERVICE_FAILURE, "service failure");
+        this.message = "service failure";
+    }
+
+    private ServiceException(String message, Long movieId, boolean writableStackTrace) {
+        super(ErrorCode.SERVICE_FAILURE, message, null, movieId, writableStackTrace);
+        this.message = message;
+    }
+
+    public static ServiceException stackless(String message, Long movieId) {
+        return new ServiceException(message, movieId, false);
+    }
+
+    public static ServiceException shared() {
+        return SHARED;
+    }
 }
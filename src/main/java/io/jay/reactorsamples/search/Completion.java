@@ -0,0 +1,14 @@
+package io.jay.reactorsamples.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Completion {
+    private Long movieInfoId;
+    private String name;
+    private double score;
+}
@@ -0,0 +1,273 @@
+package io.jay.reactorsamples.search;
+
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.domain.Review;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Embedded full-text index over movie names and review comments, built incrementally from the
+ * movie and review streams. Documents get ascending ordinals so every posting list is sorted,
+ * which lets search() score document-at-a-time with BM25 and keep only the top results in a bounded heap.
+ * Re-indexing a movie or review replaces the previous version of that document: the old ordinal is
+ * tombstoned and no longer counts towards document frequencies, and the index is compacted once
+ * tombstones outnumber live documents so repeated refreshes do not grow it.
+ */
+public class FullTextIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<String, Integer> ordinalsByKey = new HashMap<>();
+    private final List<SearchHit> documents = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+    private int deletedDocuments;
+    private int[] lengths = new int[64];
+    private long totalLength;
+    private int liveDocuments;
+
+    public Mono<Void> indexMovies(Flux<MovieInfo> movieInfoFlux) {
+        return movieInfoFlux
+                .doOnNext(this::indexMovie)
+                .then();
+    }
+
+    public Mono<Void> indexReviews(Flux<Review> reviewFlux) {
+        return reviewFlux
+                .doOnNext(this::indexReview)
+                .then();
+    }
+
+    public void indexMovie(MovieInfo movieInfo) {
+        index(SearchHit.Type.MOVIE, movieInfo.getMovieInfoId(), movieInfo.getMovieInfoId(), movieInfo.getName());
+    }
+
+    public void indexReview(Review review) {
+        index(SearchHit.Type.REVIEW, review.getReviewId(), review.getMovieInfoId(), review.getComment());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocuments;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Flux<SearchHit> search(String query, int limit) {
+        return Mono.fromCallable(() -> topHits(query, limit))
+                .flatMapIterable(hits -> hits);
+    }
+
+    private void index(SearchHit.Type type, Long id, Long movieInfoId, String text) {
+        var tokens = Tokenizer.tokenize(text);
+        var document = new SearchHit(type, id, movieInfoId, text, 0);
+
+        lock.writeLock().lock();
+        try {
+            var previous = ordinalsByKey.get(key(document));
+            if (previous != null && !deleted.get(previous)) {
+                delete(previous);
+            }
+            append(document, tokens);
+            if (deletedDocuments > liveDocuments) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void append(SearchHit document, List<String> tokens) {
+        var termFrequencies = new HashMap<String, Integer>();
+        tokens.forEach(token -> termFrequencies.merge(token, 1, Integer::sum));
+
+        int ordinal = documents.size();
+        documents.add(document);
+        ordinalsByKey.put(key(document), ordinal);
+        if (ordinal == lengths.length) {
+            lengths = Arrays.copyOf(lengths, ordinal * 2);
+        }
+        lengths[ordinal] = tokens.size();
+        totalLength += tokens.size();
+        liveDocuments++;
+        termFrequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new PostingList()).add(ordinal, frequency));
+    }
+
+    private void delete(int ordinal) {
+        deleted.set(ordinal);
+        deletedDocuments++;
+        totalLength -= lengths[ordinal];
+        liveDocuments--;
+        for (String term : new LinkedHashSet<>(Tokenizer.tokenize(documents.get(ordinal).getText()))) {
+            postings.get(term).live--;
+        }
+    }
+
+    /**
+     * re-appends the live documents in ordinal order, dropping tombstones from every posting list
+     */
+    private void compact() {
+        var live = new ArrayList<SearchHit>(liveDocuments);
+        for (int ordinal = 0; ordinal < documents.size(); ordinal++) {
+            if (!deleted.get(ordinal)) {
+                live.add(documents.get(ordinal));
+            }
+        }
+        postings.clear();
+        ordinalsByKey.clear();
+        documents.clear();
+        deleted.clear();
+        deletedDocuments = 0;
+        lengths = new int[Math.max(64, live.size())];
+        totalLength = 0;
+        liveDocuments = 0;
+        live.forEach(document -> append(document, Tokenizer.tokenize(document.getText())));
+    }
+
+    private static String key(SearchHit document) {
+        return document.getType() + ":" + document.getId();
+    }
+
+    private List<SearchHit> topHits(String query, int limit) {
+        var terms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveDocuments == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / liveDocuments;
+            var cursors = new ArrayList<TermCursor>();
+            for (String term : terms) {
+                var postingList = postings.get(term);
+                if (postingList != null && postingList.live > 0) {
+                    cursors.add(new TermCursor(postingList, idf(postingList.live)));
+                }
+            }
+
+            var heap = new PriorityQueue<ScoredDocument>(limit + 1, (left, right) -> Double.compare(left.score, right.score));
+            while (true) {
+                int document = Integer.MAX_VALUE;
+                for (TermCursor cursor : cursors) {
+                    if (cursor.hasDocument()) {
+                        document = Math.min(document, cursor.document());
+                    }
+                }
+                if (document == Integer.MAX_VALUE) {
+                    break;
+                }
+
+                double score = 0;
+                for (TermCursor cursor : cursors) {
+                    if (cursor.hasDocument() && cursor.document() == document) {
+                        score += cursor.idf * termScore(cursor.frequency(), lengths[document], averageLength);
+                        cursor.advance();
+                    }
+                }
+                if (deleted.get(document)) {
+                    continue;
+                }
+                if (heap.size() < limit) {
+                    heap.add(new ScoredDocument(document, score));
+                } else if (score > heap.peek().score) {
+                    heap.poll();
+                    heap.add(new ScoredDocument(document, score));
+                }
+            }
+
+            var hits = new ArrayList<SearchHit>(heap.size());
+            while (!heap.isEmpty()) {
+                var scored = heap.poll();
+                var document = documents.get(scored.document);
+                hits.add(new SearchHit(document.getType(), document.getId(), document.getMovieInfoId(), document.getText(), scored.score));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (liveDocuments - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static double termScore(int frequency, int length, double averageLength) {
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private static class PostingList {
+        int[] documents = new int[4];
+        int[] frequencies = new int[4];
+        int size;
+        int live;
+
+        void add(int document, int frequency) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documents[size] = document;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+    }
+
+    private static class TermCursor {
+        final PostingList postingList;
+        final double idf;
+        int position;
+
+        TermCursor(PostingList postingList, double idf) {
+            this.postingList = postingList;
+            this.idf = idf;
+        }
+
+        boolean hasDocument() {
+            return position < postingList.size;
+        }
+
+        int document() {
+            return postingList.documents[position];
+        }
+
+        int frequency() {
+            return postingList.frequencies[position];
+        }
+
+        void advance() {
+            position++;
+        }
+    }
+
+    private static class ScoredDocument {
+        final int document;
+        final double score;
+
+        ScoredDocument(int document, double score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+}
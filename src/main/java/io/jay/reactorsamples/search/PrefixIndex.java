@@ -0,0 +1,131 @@
+package io.jay.reactorsamples.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Immutable radix trie over normalized movie names. Every word start of a name is inserted, so "knight"
+ * completes "The Dark Knight". Each node caches its top completions by score when the index is built,
+ * so a lookup is a walk down the prefix and returns a precomputed list.
+ */
+public class PrefixIndex {
+
+    private static final Comparator<Completion> RANKING = Comparator.comparingDouble(Completion::getScore).reversed()
+            .thenComparing(Completion::getName)
+            .thenComparing(Completion::getMovieInfoId);
+
+    private final Node root;
+    private final int maxCompletions;
+
+    private PrefixIndex(Node root, int maxCompletions) {
+        this.root = root;
+        this.maxCompletions = maxCompletions;
+    }
+
+    public static PrefixIndex build(List<Completion> completions, int maxCompletions) {
+        var root = new Node("");
+        for (Completion completion : completions) {
+            var words = Tokenizer.tokenize(completion.getName());
+            for (int start = 0; start < words.size(); start++) {
+                insert(root, String.join(" ", words.subList(start, words.size())), 0, completion);
+            }
+        }
+        rank(root, maxCompletions);
+        return new PrefixIndex(root, maxCompletions);
+    }
+
+    public List<Completion> complete(String prefix, int limit) {
+        var key = String.join(" ", Tokenizer.tokenize(prefix));
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        var node = root;
+        int position = 0;
+        while (position < key.length()) {
+            var child = node.children.get(key.charAt(position));
+            if (child == null) {
+                return List.of();
+            }
+            int remaining = key.length() - position;
+            if (remaining <= child.label.length()) {
+                return child.label.startsWith(key.substring(position)) ? firstN(child.top, limit) : List.of();
+            }
+            if (!key.startsWith(child.label, position)) {
+                return List.of();
+            }
+            position += child.label.length();
+            node = child;
+        }
+        return firstN(node.top, limit);
+    }
+
+    public int maxCompletions() {
+        return maxCompletions;
+    }
+
+    private List<Completion> firstN(List<Completion> completions, int limit) {
+        return completions.size() <= limit ? completions : completions.subList(0, limit);
+    }
+
+    private static void insert(Node node, String key, int position, Completion completion) {
+        if (position == key.length()) {
+            node.terminals.add(completion);
+            return;
+        }
+        var child = node.children.get(key.charAt(position));
+        if (child == null) {
+            var leaf = new Node(key.substring(position));
+            leaf.terminals.add(completion);
+            node.children.put(leaf.label.charAt(0), leaf);
+            return;
+        }
+        int common = 0;
+        while (common < child.label.length() && position + common < key.length()
+                && child.label.charAt(common) == key.charAt(position + common)) {
+            common++;
+        }
+        if (common < child.label.length()) {
+            var split = new Node(child.label.substring(0, common));
+            child.label = child.label.substring(common);
+            split.children.put(child.label.charAt(0), child);
+            node.children.put(split.label.charAt(0), split);
+            child = split;
+        }
+        insert(child, key, position + common, completion);
+    }
+
+    private static List<Completion> rank(Node node, int maxCompletions) {
+        var candidates = new ArrayList<>(node.terminals);
+        for (Node child : node.children.values()) {
+            candidates.addAll(rank(child, maxCompletions));
+        }
+        candidates.sort(RANKING);
+        var seen = new HashSet<Long>();
+        var top = new ArrayList<Completion>(Math.min(candidates.size(), maxCompletions));
+        for (Completion candidate : candidates) {
+            if (top.size() == maxCompletions) {
+                break;
+            }
+            if (seen.add(candidate.getMovieInfoId())) {
+                top.add(candidate);
+            }
+        }
+        node.top = List.copyOf(top);
+        node.terminals = null;
+        return node.top;
+    }
+
+    private static class Node {
+        String label;
+        final TreeMap<Character, Node> children = new TreeMap<>();
+        List<Completion> terminals = new ArrayList<>();
+        List<Completion> top = List.of();
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+}
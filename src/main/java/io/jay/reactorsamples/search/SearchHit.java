@@ -0,0 +1,21 @@
+package io.jay.reactorsamples.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+
+    public enum Type {
+        MOVIE, REVIEW
+    }
+
+    private Type type;
+    private Long id;
+    private Long movieInfoId;
+    private String text;
+    private double score;
+}
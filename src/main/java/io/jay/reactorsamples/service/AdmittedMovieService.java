@@ -0,0 +1,51 @@
+package io.jay.reactorsamples.service;
+
+import io.jay.reactorsamples.concurrency.AdmissionController;
+import io.jay.reactorsamples.concurrency.Lane;
+import io.jay.reactorsamples.concurrency.LaneStats;
+import io.jay.reactorsamples.domain.Movie;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * MovieReactiveService behind admission control: single movie lookups run in the INTERACTIVE lane,
+ * full catalog calls in the BATCH lane
+ */
+public class AdmittedMovieService {
+
+    private final MovieReactiveService movieReactiveService;
+    private final AdmissionController admissionController;
+
+    public AdmittedMovieService(MovieReactiveService movieReactiveService) {
+        this(movieReactiveService, new AdmissionController());
+    }
+
+    public AdmittedMovieService(MovieReactiveService movieReactiveService, AdmissionController admissionController) {
+        this.movieReactiveService = movieReactiveService;
+        this.admissionController = admissionController;
+    }
+
+    public Mono<Movie> getMovieById(Long movieId) {
+        return admissionController.admit(Lane.INTERACTIVE, Mono.defer(() -> movieReactiveService.getMovieById(movieId)));
+    }
+
+    public Mono<Movie> getMovieByIdWithRevenue(Long movieId) {
+        return admissionController.admit(Lane.INTERACTIVE, Mono.defer(() -> movieReactiveService.getMovieByIdWithRevenue(movieId)));
+    }
+
+    public Mono<Movie> getMovieByIdWithReviewSummary(Long movieId) {
+        return admissionController.admit(Lane.INTERACTIVE, Mono.defer(() -> movieReactiveService.getMovieByIdWithReviewSummary(movieId)));
+    }
+
+    public Flux<Movie> getAllMovies() {
+        return admissionController.admit(Lane.BATCH, Flux.defer(movieReactiveService::getAllMovies));
+    }
+
+    public Flux<Movie> getAllMoviesWithReviewSummary() {
+        return admissionController.admit(Lane.BATCH, Flux.defer(movieReactiveService::getAllMoviesWithReviewSummary));
+    }
+
+    public LaneStats laneStats(Lane lane) {
+        return admissionController.stats(lane);
+    }
+}
@@ -0,0 +1,95 @@
+package io.jay.reactorsamples.service;
+
+import io.jay.reactorsamples.catalog.CatalogSnapshot;
+import io.jay.reactorsamples.domain.Movie;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves the aggregated catalog (movies with review summaries) from a CatalogSnapshot so a restarted
+ * instance is ready as soon as the previous snapshot is mapped, instead of after a full fan-out.
+ * Refreshes rebuild the snapshot from MovieReactiveService in the background and swap it in;
+ * until a snapshot exists, reads fall through to the live pipeline.
+ */
+@Log4j2
+public class CatalogSnapshotService {
+
+    private final MovieReactiveService movieReactiveService;
+    private final Path path;
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+
+    public CatalogSnapshotService(MovieReactiveService movieReactiveService, Path path) {
+        this.movieReactiveService = movieReactiveService;
+        this.path = path;
+    }
+
+    /**
+     * maps the snapshot left by the previous run, or builds the first one when there is none
+     */
+    public Mono<CatalogSnapshot> start() {
+        return CatalogSnapshot.load(path)
+                .onErrorResume(ex -> {
+                    log.warn("ignoring unreadable catalog snapshot {}: {}", path, ex.getMessage());
+                    return Mono.empty();
+                })
+                .doOnNext(snapshot -> {
+                    current.set(snapshot);
+                    log.info("loaded catalog snapshot v{} with {} movies", snapshot.version(), snapshot.size());
+                })
+                .switchIfEmpty(Mono.defer(this::refresh));
+    }
+
+    public Mono<CatalogSnapshot> refresh() {
+        return Mono.defer(() -> {
+            var previous = current.get();
+            long version = previous == null ? 1 : previous.version() + 1;
+            return CatalogSnapshot.write(path, version, movieReactiveService.getAllMoviesWithReviewSummary());
+        }).doOnNext(snapshot -> {
+            current.set(snapshot);
+            log.info("wrote catalog snapshot v{} with {} movies", snapshot.version(), snapshot.size());
+        });
+    }
+
+    /**
+     * a failed refresh keeps serving the previous snapshot
+     */
+    public Disposable refreshEvery(Duration period) {
+        return Flux.interval(period, period, Schedulers.boundedElastic())
+                .concatMap(tick -> refresh()
+                        .onErrorResume(ex -> {
+                            log.error("catalog snapshot refresh failed: {}", ex.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    public boolean isReady() {
+        return current.get() != null;
+    }
+
+    public long version() {
+        var snapshot = current.get();
+        return snapshot == null ? 0 : snapshot.version();
+    }
+
+    public Flux<Movie> getAllMovies() {
+        return Flux.defer(() -> {
+            var snapshot = current.get();
+            return snapshot == null ? movieReactiveService.getAllMoviesWithReviewSummary() : snapshot.movies();
+        });
+    }
+
+    public Mono<Movie> getMovieById(Long movieId) {
+        return Mono.defer(() -> {
+            var snapshot = current.get();
+            return snapshot == null ? movieReactiveService.getMovieByIdWithReviewSummary(movieId) : snapshot.movie(movieId);
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package io.jay.reactorsamples.service;
 
+import io.jay.reactorsamples.deadletter.DeadLetterQueue;
 import io.jay.reactorsamples.exception.ReactorException;
 import lombok.extern.log4j.Log4j2;
 import reactor.core.publisher.Flux;
@@ -231,6 +232,22 @@ public class FluxAndMonoGeneratorService {
                 }).log();
     }
 
+    /**
+     * same as explore_onErrorContinue but the skipped element and its error go to the dead-letter queue
+     */
+    public Flux<String> explore_onErrorContinue_deadLetter(DeadLetterQueue deadLetterQueue) {
+        return Flux.just("A", "B", "C")
+                .map(name -> {
+                    if ("B".equals(name)) {
+                        throw new IllegalStateException("exception");
+                    }
+                    return name;
+                })
+                .concatWith(Flux.just("D"))
+                .onErrorContinue(deadLetterQueue.errorConsumer())
+                .log();
+    }
+
     public Flux<String> explore_onErrorMap() {
         return Flux.just("A", "B", "C")
                 .map(name -> {
@@ -1,11 +1,13 @@
 package io.jay.reactorsamples.service;
 
+import io.jay.reactorsamples.util.FutureFluxAdapter;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.jay.reactorsamples.util.CommonUtil.delay;
 
@@ -56,6 +58,24 @@ public class FluxAndMonoProgrammaticGeneratorService {
                 .thenRun(sink::complete);
     }
 
+    /**
+     * demand driven: a batch of names is only fetched when downstream has requested it
+     */
+    public Flux<String> explore_create_onRequest(int maxBatchSize) {
+        return Flux.defer(() -> {
+            var offset = new AtomicInteger();
+            return FutureFluxAdapter.fromFutures(count -> CompletableFuture
+                    .supplyAsync(() -> namesPage(offset.getAndAdd(count), count)), maxBatchSize);
+        });
+    }
+
+    private static List<String> namesPage(int offset, int count) {
+        var names = List.of("alex", "ben", "chloe");
+        int from = Math.min(offset, names.size());
+        int to = Math.min(from + count, names.size());
+        return names.subList(from, to);
+    }
+
     public Mono<String> explore_create_mono() {
         return Mono.create(monoSink -> {
             monoSink.success("success");
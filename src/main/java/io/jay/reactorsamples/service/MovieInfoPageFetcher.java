@@ -0,0 +1,14 @@
+package io.jay.reactorsamples.service;
+
+import io.jay.reactorsamples.domain.MovieInfo;
+
+import java.util.List;
+
+/**
+ * keyset pagination: returns up to limit movie infos ordered by id whose id is greater than afterMovieInfoId
+ * (null for the first page). A page smaller than limit is the last one.
+ */
+@FunctionalInterface
+public interface MovieInfoPageFetcher {
+    List<MovieInfo> fetchAfter(Long afterMovieInfoId, int limit);
+}
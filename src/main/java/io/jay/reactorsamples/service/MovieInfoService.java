@@ -1,18 +1,32 @@
 package io.jay.reactorsamples.service;
 
+import io.jay.reactorsamples.catalog.MovieCatalogIndex;
 import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.util.ConditionalGetCache;
+import io.jay.reactorsamples.util.IdRange;
+import lombok.extern.log4j.Log4j2;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import static io.jay.reactorsamples.util.CommonUtil.delay;
 
+@Log4j2
 public class MovieInfoService {
 
     private WebClient webClient;
+    private ConditionalGetCache conditionalGetCache;
+    private final MovieCatalogIndex catalogIndex = new MovieCatalogIndex();
+    private final AtomicReference<Mono<Void>> catalogIndexRebuild = new AtomicReference<>();
 
     public MovieInfoService() {
     }
@@ -21,13 +35,49 @@ public class MovieInfoService {
         this.webClient = webClient;
     }
 
+    /**
+     * retrieveAllMovieInfoUsingWebClient polls conditionally and answers 304s from the cache
+     */
+    public MovieInfoService(WebClient webClient, ConditionalGetCache conditionalGetCache) {
+        this.webClient = webClient;
+        this.conditionalGetCache = conditionalGetCache;
+    }
+
     public Flux<MovieInfo> retrieveAllMovieInfoUsingWebClient() {
+        if (conditionalGetCache != null) {
+            return conditionalGetCache.getFlux(webClient, "/v1/movie_infos", MovieInfo.class);
+        }
         return webClient.get()
                 .uri("/v1/movie_infos")
                 .retrieve()
                 .bodyToFlux(MovieInfo.class);
     }
 
+    /**
+     * Downloads [fromId, toId] as partitions ranges (/v1/movie_infos?fromId=&toId=), at most concurrency of them
+     * in flight. ordered keeps id order by buffering ranges that finish early, unordered emits as ranges arrive.
+     * Use a WebClient from PooledWebClients with at least concurrency connections so ranges do not share one.
+     * The fromId/toId range query is only implemented by the test StubUpstreamServer, it is not part of the
+     * movie info upstream API.
+     */
+    public Flux<MovieInfo> retrieveAllMovieInfoPartitionedUsingWebClient(long fromId, long toId, int partitions,
+                                                                        int concurrency, boolean ordered) {
+        var ranges = Flux.fromIterable(IdRange.split(fromId, toId, partitions));
+        return ordered
+                ? ranges.flatMapSequential(this::retrieveMovieInfoRangeUsingWebClient, concurrency)
+                : ranges.flatMap(this::retrieveMovieInfoRangeUsingWebClient, concurrency);
+    }
+
+    private Flux<MovieInfo> retrieveMovieInfoRangeUsingWebClient(IdRange range) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/v1/movie_infos")
+                        .queryParam("fromId", range.getFromId())
+                        .queryParam("toId", range.getToId())
+                        .build())
+                .retrieve()
+                .bodyToFlux(MovieInfo.class);
+    }
+
     public Mono<MovieInfo> retrieveMovieInfoUsingWebClient(Long movieInfoId) {
         return webClient.get()
                 .uri("/v1/movie_infos/{id}", movieInfoId)
@@ -35,6 +85,69 @@ public class MovieInfoService {
                 .bodyToMono(MovieInfo.class);
     }
 
+    /**
+     * pages are pulled by keyset cursor as downstream demands them. Fetching runs on boundedElastic
+     * ahead of the consumer, which is fed on the parallel scheduler, and at most maxPagesInMemory
+     * fetched pages are buffered ahead of it.
+     */
+    public Flux<MovieInfo> retrieveMoviesPaginated(MovieInfoPageFetcher fetcher, int pageSize, int maxPagesInMemory) {
+        return Flux.<List<MovieInfo>, PageCursor>generate(() -> PageCursor.FIRST, (cursor, sink) -> {
+                    if (cursor.last) {
+                        sink.complete();
+                        return cursor;
+                    }
+                    var page = fetcher.fetchAfter(cursor.afterMovieInfoId, pageSize);
+                    if (page.isEmpty()) {
+                        sink.complete();
+                        return cursor;
+                    }
+                    sink.next(page);
+                    return page.size() < pageSize
+                            ? PageCursor.LAST
+                            : new PageCursor(page.get(page.size() - 1).getMovieInfoId(), false);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .publishOn(Schedulers.parallel(), maxPagesInMemory)
+                .concatMapIterable(page -> page, 1);
+    }
+
+    public Flux<MovieInfo> retrieveMoviesPaginated(int pageSize, int maxPagesInMemory) {
+        return retrieveMoviesPaginated(this::retrieveMoviesAfter, pageSize, maxPagesInMemory);
+    }
+
+    /**
+     * pages through /v1/movie_infos?limit=&afterId=. The limit/afterId keyset query is only implemented by the
+     * test StubUpstreamServer, it is not part of the movie info upstream API.
+     */
+    public Flux<MovieInfo> retrieveAllMovieInfoPaginatedUsingWebClient(int pageSize, int maxPagesInMemory) {
+        return retrieveMoviesPaginated(this::retrieveMovieInfoPageUsingWebClient, pageSize, maxPagesInMemory);
+    }
+
+    /* blocking on purpose: pages are fetched on boundedElastic by retrieveMoviesPaginated */
+    private List<MovieInfo> retrieveMovieInfoPageUsingWebClient(Long afterMovieInfoId, int limit) {
+        return webClient.get()
+                .uri(uriBuilder -> {
+                    uriBuilder.path("/v1/movie_infos").queryParam("limit", limit);
+                    if (afterMovieInfoId != null) {
+                        uriBuilder.queryParam("afterId", afterMovieInfoId);
+                    }
+                    return uriBuilder.build();
+                })
+                .retrieve()
+                .bodyToFlux(MovieInfo.class)
+                .collectList()
+                .block();
+    }
+
+    public List<MovieInfo> retrieveMoviesAfter(Long afterMovieInfoId, int limit) {
+        return retrieveMoviesFlux()
+                .toStream()
+                .filter(movieInfo -> afterMovieInfoId == null || movieInfo.getMovieInfoId() > afterMovieInfoId)
+                .sorted(Comparator.comparing(MovieInfo::getMovieInfoId))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
     public Flux<MovieInfo> retrieveMoviesFlux() {
 
         var movieInfoList = List.of(
@@ -45,6 +158,56 @@ public class MovieInfoService {
         return Flux.fromIterable(movieInfoList);
     }
 
+    /**
+     * rebuilds the year / release date / cast indexes from the current catalog, queries keep using
+     * the previous version until the new one is complete. Callers arriving while a rebuild is running
+     * share it instead of starting another one.
+     */
+    public Mono<Void> refreshCatalogIndex() {
+        return Mono.defer(() -> {
+            var running = catalogIndexRebuild.get();
+            if (running != null) {
+                return running;
+            }
+            var rebuild = new AtomicReference<Mono<Void>>();
+            rebuild.set(catalogIndex.rebuild(retrieveMoviesFlux())
+                    .doFinally(signal -> catalogIndexRebuild.compareAndSet(rebuild.get(), null))
+                    .cache());
+            return catalogIndexRebuild.compareAndSet(null, rebuild.get()) ? rebuild.get() : catalogIndexRebuild.get();
+        });
+    }
+
+    /**
+     * keeps the indexes in step with the catalog, a failed rebuild keeps serving the previous version
+     */
+    public Disposable refreshCatalogIndexEvery(Duration period) {
+        return Flux.interval(period, period, Schedulers.boundedElastic())
+                .concatMap(tick -> refreshCatalogIndex()
+                        .onErrorResume(ex -> {
+                            log.error("catalog index refresh failed: {}", ex.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    public Flux<MovieInfo> retrieveMoviesByYear(int year) {
+        return indexedCatalog().flatMapMany(index -> index.byYear(year));
+    }
+
+    public Flux<MovieInfo> retrieveMoviesReleasedBetween(LocalDate from, LocalDate to) {
+        return indexedCatalog().flatMapMany(index -> index.releasedBetween(from, to));
+    }
+
+    public Flux<MovieInfo> retrieveMoviesByCast(String castMember) {
+        return indexedCatalog().flatMapMany(index -> index.byCast(castMember));
+    }
+
+    private Mono<MovieCatalogIndex> indexedCatalog() {
+        return Mono.defer(() -> catalogIndex.isBuilt()
+                ? Mono.just(catalogIndex)
+                : refreshCatalogIndex().thenReturn(catalogIndex));
+    }
+
     public Mono<MovieInfo> retrieveMovieInfoMonoUsingId(long movieId) {
 
         var movie = new MovieInfo(movieId, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
@@ -66,4 +229,16 @@ public class MovieInfoService {
         return new MovieInfo(movieId, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
     }
 
+    private static class PageCursor {
+        static final PageCursor FIRST = new PageCursor(null, false);
+        static final PageCursor LAST = new PageCursor(null, true);
+
+        final Long afterMovieInfoId;
+        final boolean last;
+
+        PageCursor(Long afterMovieInfoId, boolean last) {
+            this.afterMovieInfoId = afterMovieInfoId;
+            this.last = last;
+        }
+    }
 }
\ No newline at end of file
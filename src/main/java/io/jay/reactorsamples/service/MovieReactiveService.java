@@ -1,21 +1,35 @@
 package io.jay.reactorsamples.service;
 
+import io.jay.reactorsamples.catalog.MovieChangeTracker;
+import io.jay.reactorsamples.catalog.ReviewSummaryAccumulator;
+import io.jay.reactorsamples.concurrency.AdaptiveConcurrencyLimiter;
 import io.jay.reactorsamples.domain.Movie;
+import io.jay.reactorsamples.domain.MovieChange;
 import io.jay.reactorsamples.domain.MovieInfo;
 import io.jay.reactorsamples.domain.Revenue;
 import io.jay.reactorsamples.domain.Review;
+import io.jay.reactorsamples.domain.ReviewSummary;
 import io.jay.reactorsamples.exception.MovieException;
 import io.jay.reactorsamples.exception.NetworkException;
 import io.jay.reactorsamples.exception.ServiceException;
+import io.jay.reactorsamples.util.Deadline;
 import lombok.extern.log4j.Log4j2;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+import reactor.util.function.Tuples;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Log4j2
 public class MovieReactiveService {
@@ -23,6 +37,7 @@ public class MovieReactiveService {
     private MovieInfoService movieInfoService;
     private ReviewService reviewService;
     private RevenueService revenueService;
+    private AdaptiveConcurrencyLimiter reviewLimiter = new AdaptiveConcurrencyLimiter();
 
     public MovieReactiveService(MovieInfoService movieInfoService, ReviewService reviewService) {
         this.movieInfoService = movieInfoService;
@@ -35,40 +50,115 @@ public class MovieReactiveService {
         this.revenueService = revenueService;
     }
 
+    /**
+     * the review fan-out of getAllMovies* only keeps reviewLimiter.currentLimit() review calls in flight and
+     * takes at most reviewLimiter.maxLimit() movies from upstream at a time, so no more than that ever wait
+     */
+    public MovieReactiveService(MovieInfoService movieInfoService, ReviewService reviewService, RevenueService revenueService,
+                                AdaptiveConcurrencyLimiter reviewLimiter) {
+        this(movieInfoService, reviewService, revenueService);
+        this.reviewLimiter = reviewLimiter;
+    }
+
+    public int reviewConcurrencyLimit() {
+        return reviewLimiter.currentLimit();
+    }
+
     public Flux<Movie> getAllMovies() {
         Flux<MovieInfo> moviesInfoFlux = movieInfoService.retrieveMoviesFlux();
         return moviesInfoFlux
                 .flatMap(movieInfo -> {
-                    Mono<List<Review>> reviewsMono = reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId())
-                            .collectList();
-                    return reviewsMono.map(list -> new Movie(movieInfo, list));
-                })
-                .onErrorMap(ex -> {
-                    log.error(ex.getMessage());
-                    throw new MovieException(ex.getMessage());
-                })
+                    Long movieId = movieInfo.getMovieInfoId();
+                    return Mono.defer(() -> {
+                                Mono<List<Review>> reviewsMono = reviewLimiter.limit(reviewService.retrieveReviewsFlux(movieId))
+                                        .collectList();
+                                return reviewsMono.map(list -> new Movie(movieInfo, list));
+                            })
+                            .onErrorMap(ex -> toMovieException(ex, movieId));
+                }, reviewLimiter.maxLimit())
+                .onErrorMap(ex -> !(ex instanceof MovieException), ex -> toMovieException(ex, null))
                 .log();
     }
 
+    /**
+     * reviews are folded into a ReviewSummary as they stream in instead of being collected into a list
+     */
+    public Flux<Movie> getAllMoviesWithReviewSummary() {
+        Flux<MovieInfo> moviesInfoFlux = movieInfoService.retrieveMoviesFlux();
+        return moviesInfoFlux
+                .flatMap(movieInfo -> {
+                    Long movieId = movieInfo.getMovieInfoId();
+                    return Mono.defer(() -> {
+                                Flux<Review> reviewFlux = reviewLimiter.limit(reviewService.retrieveReviewsFlux(movieId));
+                                return reviewSummary(movieId, reviewFlux)
+                                        .map(summary -> new Movie(movieInfo, summary));
+                            })
+                            .onErrorMap(ex -> toMovieException(ex, movieId));
+                }, reviewLimiter.maxLimit())
+                .onErrorMap(ex -> !(ex instanceof MovieException), ex -> toMovieException(ex, null))
+                .log();
+    }
+
+    public Mono<Movie> getMovieByIdWithReviewSummary(Long movieId) {
+        Mono<MovieInfo> movieInfoMono = movieInfoService.retrieveMovieInfoMonoUsingId(movieId);
+        Mono<ReviewSummary> reviewSummaryMono = reviewSummary(movieId, reviewService.retrieveReviewsFlux(movieId));
+        return movieInfoMono.zipWith(reviewSummaryMono, (movieInfo, summary) -> new Movie(movieInfo, summary));
+    }
+
+    private static MovieException toMovieException(Throwable ex, Long movieId) {
+        log.error(ex.getMessage());
+        return new MovieException(ex.getMessage(), movieId);
+    }
+
+    private static MovieException toStacklessMovieException(Throwable ex, Long movieId) {
+        log.error(ex.getMessage());
+        return MovieException.stackless(ex.getMessage(), movieId);
+    }
+
+    /**
+     * network failures are worth retrying, anything else is not
+     */
+    private static RuntimeException toRetryableException(Throwable ex, Long movieId) {
+        log.error(ex.getMessage());
+        if (ex instanceof NetworkException) {
+            return MovieException.stackless(ex.getMessage(), movieId);
+        }
+        return ServiceException.stackless(ex.getMessage(), movieId);
+    }
+
+    private Mono<ReviewSummary> reviewSummary(long movieId, Flux<Review> reviewFlux) {
+        return reviewFlux
+                .collect(ReviewSummaryAccumulator::new, ReviewSummaryAccumulator::accept)
+                .map(accumulator -> accumulator.summary(movieId));
+    }
+
+    /**
+     * every leg only gets the time left on the Deadline in the subscriber context, if there is one
+     */
     public Mono<Movie> getMovieByIdUsingWebClient(Long movieId) {
-        Mono<MovieInfo> movieInfoMono = movieInfoService.retrieveMovieInfoUsingWebClient(movieId);
-        Mono<List<Review>> reviewList = reviewService.retrieveReviewsUsingWebClient(movieId)
+        Mono<MovieInfo> movieInfoMono = Deadline.timeout(movieInfoService.retrieveMovieInfoUsingWebClient(movieId));
+        Mono<List<Review>> reviewList = Deadline.timeout(reviewService.retrieveReviewsUsingWebClient(movieId))
                 .collectList();
         return movieInfoMono.zipWith(reviewList, (movieInfo, reviews) -> new Movie(movieInfo, reviews));
     }
 
+    public Mono<Movie> getMovieByIdUsingWebClient(Long movieId, Duration budget) {
+        return Deadline.withBudget(getMovieByIdUsingWebClient(movieId), budget);
+    }
+
     public Flux<Movie> getAllMoviesUsingWebClient() {
         Flux<MovieInfo> moviesInfoFlux = movieInfoService.retrieveAllMovieInfoUsingWebClient();
         return moviesInfoFlux
                 .flatMap(movieInfo -> {
-                    Mono<List<Review>> reviewsMono = reviewService.retrieveReviewsUsingWebClient(movieInfo.getMovieInfoId())
-                            .collectList();
-                    return reviewsMono.map(list -> new Movie(movieInfo, list));
-                })
-                .onErrorMap(ex -> {
-                    log.error(ex.getMessage());
-                    throw new MovieException(ex.getMessage());
-                })
+                    Long movieId = movieInfo.getMovieInfoId();
+                    return Mono.defer(() -> {
+                                Mono<List<Review>> reviewsMono = reviewLimiter.limit(reviewService.retrieveReviewsUsingWebClient(movieId))
+                                        .collectList();
+                                return reviewsMono.map(list -> new Movie(movieInfo, list));
+                            })
+                            .onErrorMap(ex -> toMovieException(ex, movieId));
+                }, reviewLimiter.maxLimit())
+                .onErrorMap(ex -> !(ex instanceof MovieException), ex -> toMovieException(ex, null))
                 .log();
     }
 
@@ -86,13 +176,13 @@ public class MovieReactiveService {
     }
 
     public Mono<Movie> getMovieByIdWithRevenue(Long movieId) {
-        Mono<MovieInfo> movieInfoMono = movieInfoService.retrieveMovieInfoMonoUsingId(movieId);
-        Mono<List<Review>> reviewList = reviewService.retrieveReviewsFlux(movieId)
+        Mono<MovieInfo> movieInfoMono = Deadline.timeout(movieInfoService.retrieveMovieInfoMonoUsingId(movieId));
+        Mono<List<Review>> reviewList = Deadline.timeout(reviewService.retrieveReviewsFlux(movieId))
                 .collectList();
 
-        /* integrate a blocking call into reactive */
-        Mono<Revenue> revenueMono = Mono.fromCallable(() -> revenueService.getRevenue(movieId))
-                .subscribeOn(Schedulers.boundedElastic());
+        /* integrate a blocking call into reactive, a timeout interrupts the boundedElastic worker */
+        Mono<Revenue> revenueMono = Deadline.timeout(Mono.fromCallable(() -> revenueService.getRevenue(movieId))
+                .subscribeOn(Schedulers.boundedElastic()));
 
         return movieInfoMono.zipWith(reviewList, (movieInfo, reviews) -> new Movie(movieInfo, reviews))
                 .zipWith(revenueMono, (movie, revenue) -> {
@@ -101,23 +191,34 @@ public class MovieReactiveService {
                 });
     }
 
+    public Mono<Movie> getMovieByIdWithRevenue(Long movieId, Duration budget) {
+        return Deadline.withBudget(getMovieByIdWithRevenue(movieId), budget);
+    }
+
 
+    /**
+     * failed attempts are retried and thrown away, so they are signalled with stackless exceptions
+     */
     public Flux<Movie> getAllMoviesRetry() {
         Flux<MovieInfo> moviesInfoFlux = movieInfoService.retrieveMoviesFlux();
         return moviesInfoFlux
                 .flatMap(movieInfo -> {
-                    Mono<List<Review>> reviewsMono = reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId())
-                            .collectList();
-                    return reviewsMono.map(list -> new Movie(movieInfo, list));
-                })
-                .onErrorMap(ex -> {
-                    log.error(ex.getMessage());
-                    throw new MovieException(ex.getMessage());
-                })
+                    Long movieId = movieInfo.getMovieInfoId();
+                    return Mono.defer(() -> {
+                                Mono<List<Review>> reviewsMono = reviewLimiter.limit(reviewService.retrieveReviewsFlux(movieId))
+                                        .collectList();
+                                return reviewsMono.map(list -> new Movie(movieInfo, list));
+                            })
+                            .onErrorMap(ex -> toStacklessMovieException(ex, movieId));
+                }, reviewLimiter.maxLimit())
+                .onErrorMap(ex -> !(ex instanceof MovieException), ex -> toStacklessMovieException(ex, null))
                 .retry(3)
                 .log();
     }
 
+    /**
+     * failed attempts are retried and thrown away, so they are signalled with stackless exceptions
+     */
     public Flux<Movie> getAllMoviesRetryWhen() {
         var retrySpec = Retry.backoff(3, Duration.ofMillis(100))
                 .filter(ex -> ex instanceof MovieException)
@@ -126,18 +227,16 @@ public class MovieReactiveService {
         Flux<MovieInfo> moviesInfoFlux = movieInfoService.retrieveMoviesFlux();
         return moviesInfoFlux
                 .flatMap(movieInfo -> {
-                    Mono<List<Review>> reviewsMono = reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId())
-                            .collectList();
-                    return reviewsMono.map(list -> new Movie(movieInfo, list));
-                })
-                .onErrorMap(ex -> {
-                    log.error(ex.getMessage());
-                    if (ex instanceof NetworkException) {
-                        throw new MovieException(ex.getMessage());
-                    } else {
-                        throw new ServiceException(ex.getMessage());
-                    }
-                })
+                    Long movieId = movieInfo.getMovieInfoId();
+                    return Mono.defer(() -> {
+                                Mono<List<Review>> reviewsMono = reviewLimiter.limit(reviewService.retrieveReviewsFlux(movieId))
+                                        .collectList();
+                                return reviewsMono.map(list -> new Movie(movieInfo, list));
+                            })
+                            .onErrorMap(ex -> toRetryableException(ex, movieId));
+                }, reviewLimiter.maxLimit())
+                .onErrorMap(ex -> !(ex instanceof MovieException || ex instanceof ServiceException),
+                        ex -> toRetryableException(ex, null))
                 .retryWhen(retrySpec)
                 .log();
     }
@@ -146,11 +245,95 @@ public class MovieReactiveService {
         Flux<MovieInfo> moviesInfoFlux = movieInfoService.retrieveMoviesFlux();
         return moviesInfoFlux
                 .flatMap(movieInfo -> {
-                    Mono<List<Review>> reviewsMono = reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId())
+                    Mono<List<Review>> reviewsMono = reviewLimiter.limit(reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId()))
                             .collectList();
                     return reviewsMono.map(list -> new Movie(movieInfo, list));
-                })
+                }, reviewLimiter.maxLimit())
                 .repeat(1)
                 .log();
     }
+
+    /**
+     * Like getAllMoviesRepeat but every pass only emits what changed since the previous one. Reviews are
+     * only re-fetched for movies whose info hash or review version changed; the first pass emits every movie
+     * as ADDED, movies missing from a later pass are emitted as REMOVED. A movie's new fingerprint is only
+     * committed after the subscriber's onNext for its change returned without cancelling.
+     */
+    public Flux<MovieChange> getAllMoviesRepeatIncremental(long repeat) {
+        return Flux.defer(() -> {
+                    var tracker = new MovieChangeTracker();
+                    return Flux.defer(() -> moviesChangedSinceLastPass(tracker))
+                            .repeat(repeat);
+                })
+                .log();
+    }
+
+    private Flux<MovieChange> moviesChangedSinceLastPass(MovieChangeTracker tracker) {
+        return movieInfoService.retrieveMoviesFlux()
+                .flatMapSequential(movieInfo -> reviewService.retrieveReviewsVersion(movieInfo.getMovieInfoId())
+                        .map(reviewVersion -> Tuples.of(movieInfo, reviewVersion)))
+                .flatMapSequential(infoAndVersion -> {
+                    var movieInfo = infoAndVersion.getT1();
+                    var type = tracker.classify(movieInfo, infoAndVersion.getT2());
+                    if (type == null) {
+                        return Mono.empty();
+                    }
+                    return reviewLimiter.limit(reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId()))
+                            .collectList()
+                            .map(reviews -> new MovieChange(type, movieInfo.getMovieInfoId(), new Movie(movieInfo, reviews)));
+                }, reviewLimiter.maxLimit())
+                .transform(afterDelivery(change -> tracker.commit(change.getMovieInfoId())))
+                .concatWith(Flux.defer(() -> Flux.fromIterable(tracker.endPass()))
+                        .map(movieInfoId -> new MovieChange(MovieChange.Type.REMOVED, movieInfoId, null)));
+    }
+
+    /**
+     * unlike doOnNext, runs the action only after the downstream onNext returned without cancelling, so a change
+     * is only committed once the subscriber has handled it
+     */
+    private static <T> Function<Flux<T>, Publisher<T>> afterDelivery(Consumer<T> action) {
+        return flux -> Operators.<T, T>lift((scannable, actual) -> new CoreSubscriber<T>() {
+            private volatile boolean cancelled;
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                /* a plain Subscription, so downstream cannot fuse past onNext */
+                actual.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long n) {
+                        subscription.request(n);
+                    }
+
+                    @Override
+                    public void cancel() {
+                        cancelled = true;
+                        subscription.cancel();
+                    }
+                });
+            }
+
+            @Override
+            public void onNext(T value) {
+                actual.onNext(value);
+                if (!cancelled) {
+                    action.accept(value);
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                actual.onError(error);
+            }
+
+            @Override
+            public void onComplete() {
+                actual.onComplete();
+            }
+
+            @Override
+            public Context currentContext() {
+                return actual.currentContext();
+            }
+        }).apply(flux);
+    }
 }
\ No newline at end of file
@@ -1,15 +1,18 @@
 package io.jay.reactorsamples.service;
 
 import io.jay.reactorsamples.domain.Review;
+import io.jay.reactorsamples.util.ConditionalGetCache;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
 public class ReviewService {
 
     private WebClient webClient;
+    private ConditionalGetCache conditionalGetCache;
 
     public ReviewService() {}
 
@@ -17,12 +20,23 @@ public class ReviewService {
         this.webClient = webClient;
     }
 
+    /**
+     * retrieveReviewsUsingWebClient polls conditionally and answers 304s from the cache
+     */
+    public ReviewService(WebClient webClient, ConditionalGetCache conditionalGetCache) {
+        this.webClient = webClient;
+        this.conditionalGetCache = conditionalGetCache;
+    }
+
     public Flux<Review> retrieveReviewsUsingWebClient(long movieInfoId) {
         var uri = UriComponentsBuilder.fromUriString("/v1/reviews")
                 .queryParam("movieInfoId", movieInfoId)
                 .buildAndExpand()
                 .toUriString();
 
+        if (conditionalGetCache != null) {
+            return conditionalGetCache.getFlux(webClient, uri, Review.class);
+        }
         return webClient.get()
                 .uri(uri)
                 .retrieve()
@@ -36,6 +50,13 @@ public class ReviewService {
                 new Review(2L, movieInfoId, "Excellent Movie", 9.0));
     }
 
+    /**
+     * advances whenever reviews of the movie change, the in-memory reviews never do
+     */
+    public Mono<Long> retrieveReviewsVersion(long movieInfoId) {
+        return Mono.just(0L);
+    }
+
     public Flux<Review> retrieveReviewsFlux(long movieInfoId) {
 
         var reviewsList = List.of(new Review(1L, movieInfoId, "Awesome Movie", 8.9),
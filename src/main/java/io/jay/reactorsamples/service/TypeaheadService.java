@@ -0,0 +1,69 @@
+package io.jay.reactorsamples.service;
+
+import io.jay.reactorsamples.catalog.ReviewSummaryAccumulator;
+import io.jay.reactorsamples.search.Completion;
+import io.jay.reactorsamples.search.PrefixIndex;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TypeaheadService {
+
+    private final MovieInfoService movieInfoService;
+    private final ReviewService reviewService;
+    private final Duration debounce;
+    private final int maxCompletions;
+    private final AtomicReference<PrefixIndex> prefixIndex = new AtomicReference<>();
+
+    public TypeaheadService(MovieInfoService movieInfoService, ReviewService reviewService) {
+        this(movieInfoService, reviewService, Duration.ofMillis(150), 10);
+    }
+
+    public TypeaheadService(MovieInfoService movieInfoService, ReviewService reviewService, Duration debounce, int maxCompletions) {
+        this.movieInfoService = movieInfoService;
+        this.reviewService = reviewService;
+        this.debounce = debounce;
+        this.maxCompletions = maxCompletions;
+    }
+
+    /**
+     * keystrokes carry the full text of the search box. A lookup only starts once typing pauses for the
+     * debounce period, and a newer query cancels the lookup still in flight via switchMap.
+     */
+    public Flux<List<Completion>> typeahead(Flux<String> keystrokes) {
+        return keystrokes
+                .sampleTimeout(text -> Mono.delay(debounce))
+                .distinctUntilChanged()
+                .switchMap(text -> complete(text, maxCompletions));
+    }
+
+    public Mono<List<Completion>> complete(String prefix, int limit) {
+        return prefixIndex()
+                .map(index -> index.complete(prefix, limit));
+    }
+
+    /**
+     * rebuilds the prefix index from the catalog, ranking completions by average rating
+     */
+    public Mono<Void> refresh() {
+        return movieInfoService.retrieveMoviesFlux()
+                .flatMap(movieInfo -> reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId())
+                        .collect(ReviewSummaryAccumulator::new, ReviewSummaryAccumulator::accept)
+                        .map(ratings -> new Completion(movieInfo.getMovieInfoId(), movieInfo.getName(),
+                                ratings.summary(movieInfo.getMovieInfoId()).getAverage())))
+                .collectList()
+                .map(completions -> PrefixIndex.build(completions, maxCompletions))
+                .doOnNext(prefixIndex::set)
+                .then();
+    }
+
+    private Mono<PrefixIndex> prefixIndex() {
+        return Mono.defer(() -> {
+            var index = prefixIndex.get();
+            return index != null ? Mono.just(index) : refresh().then(Mono.fromSupplier(prefixIndex::get));
+        });
+    }
+}
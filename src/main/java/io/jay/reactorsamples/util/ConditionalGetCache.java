@@ -0,0 +1,157 @@
+package io.jay.reactorsamples.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conditional GETs for polled collections. The ETag and the decoded body of the last 200 response are kept per
+ * uri and element type in an LRU bounded by the total number of cached elements. Later requests send
+ * If-None-Match and a 304 is answered from the cached objects without reading or decoding a body.
+ * 200 bodies are streamed through as they decode and only copied aside when they carry an ETag; responses
+ * without an ETag, or larger than the whole cache, are not cached.
+ */
+public class ConditionalGetCache {
+
+    private final long maxElements;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedElements;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ConditionalGetCache() {
+        this(100_000);
+    }
+
+    public ConditionalGetCache(long maxElements) {
+        if (maxElements <= 0) {
+            throw new IllegalArgumentException("maxElements must be positive");
+        }
+        this.maxElements = maxElements;
+    }
+
+    public <T> Flux<T> getFlux(WebClient webClient, String uri, Class<T> elementType) {
+        var key = elementType.getName() + " " + uri;
+        return Flux.defer(() -> {
+            var cached = lookup(key);
+            return webClient.get()
+                    .uri(uri)
+                    .headers(headers -> {
+                        if (cached != null) {
+                            headers.setIfNoneMatch(cached.etag);
+                        }
+                    })
+                    .exchangeToFlux(response -> {
+                        if (response.statusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+                            hits.incrementAndGet();
+                            return response.releaseBody().thenMany(Flux.fromIterable(cached.<T>body()));
+                        }
+                        if (!response.statusCode().is2xxSuccessful()) {
+                            return response.createException().flatMapMany(ex -> Flux.<T>error(ex));
+                        }
+                        misses.incrementAndGet();
+                        var etag = response.headers().asHttpHeaders().getETag();
+                        if (etag == null) {
+                            invalidate(key);
+                            return response.bodyToFlux(elementType);
+                        }
+                        var body = new ArrayList<T>();
+                        var tooLarge = new AtomicBoolean();
+                        return response.bodyToFlux(elementType)
+                                .doOnNext(element -> {
+                                    if (tooLarge.get()) {
+                                        return;
+                                    }
+                                    if (body.size() == maxElements) {
+                                        tooLarge.set(true);
+                                        body.clear();
+                                        return;
+                                    }
+                                    body.add(element);
+                                })
+                                .doOnComplete(() -> {
+                                    if (tooLarge.get()) {
+                                        invalidate(key);
+                                    } else {
+                                        store(key, new Entry(etag, List.copyOf(body)));
+                                    }
+                                });
+                    });
+        });
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    public double hitRate() {
+        long hits = this.hits.get();
+        long total = hits + misses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long cachedElements() {
+        return cachedElements;
+    }
+
+    private synchronized Entry lookup(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void store(String key, Entry entry) {
+        var replaced = entries.put(key, entry);
+        if (replaced != null) {
+            cachedElements -= replaced.body.size();
+        }
+        cachedElements += entry.body.size();
+        var eldest = entries.entrySet().iterator();
+        while (cachedElements > maxElements) {
+            var evicted = eldest.next();
+            cachedElements -= evicted.getValue().body.size();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private synchronized void invalidate(String key) {
+        var removed = entries.remove(key);
+        if (removed != null) {
+            cachedElements -= removed.body.size();
+        }
+    }
+
+    private static class Entry {
+        final String etag;
+        final List<?> body;
+
+        Entry(String etag, List<?> body) {
+            this.etag = etag;
+            this.body = body;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> List<T> body() {
+            return (List<T>) body;
+        }
+    }
+}
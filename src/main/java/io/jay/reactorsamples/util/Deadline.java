@@ -0,0 +1,100 @@
+package io.jay.reactorsamples.util;
+
+import io.jay.reactorsamples.exception.DeadlineExceededException;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Absolute time budget of a request, carried in the Reactor Context under Deadline.class.
+ * Every leg wrapped with timeout() only gets the time that is left, fails fast with DeadlineExceededException
+ * once the deadline has passed and is cancelled when it runs over. Nested budgets never extend an outer one.
+ * Time comes from the parallel scheduler clock so virtual time tests can drive it.
+ */
+public class Deadline {
+
+    /**
+     * remaining budget in milliseconds, sent to upstreams and accepted from clients
+     */
+    public static final String HEADER = "X-Deadline-Remaining-Ms";
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(now() + budget.toNanos());
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - now()));
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - now() <= 0;
+    }
+
+    public static Context withBudget(Context context, Duration budget) {
+        var deadline = after(budget);
+        return context.put(Deadline.class, context.<Deadline>getOrEmpty(Deadline.class)
+                .filter(outer -> outer.deadlineNanos - deadline.deadlineNanos < 0)
+                .orElse(deadline));
+    }
+
+    /**
+     * the budget starts when the returned Mono is subscribed
+     */
+    public static <T> Mono<T> withBudget(Mono<T> mono, Duration budget) {
+        return mono.contextWrite(context -> withBudget(context, budget));
+    }
+
+    public static <T> Flux<T> withBudget(Flux<T> flux, Duration budget) {
+        return flux.contextWrite(context -> withBudget(context, budget));
+    }
+
+    public static <T> Mono<T> timeout(Mono<T> leg) {
+        return Mono.deferContextual(context -> context.<Deadline>getOrEmpty(Deadline.class)
+                .map(deadline -> deadline.isExpired()
+                        ? Mono.<T>error(exceeded())
+                        : leg.timeout(deadline.remaining(), Mono.error(Deadline::exceeded)))
+                .orElse(leg));
+    }
+
+    public static <T> Flux<T> timeout(Flux<T> leg) {
+        return Flux.deferContextual(context -> context.<Deadline>getOrEmpty(Deadline.class)
+                .map(deadline -> deadline.isExpired()
+                        ? Flux.<T>error(exceeded())
+                        : leg.timeout(Mono.delay(deadline.remaining()), item -> Mono.delay(deadline.remaining()), Flux.error(Deadline::exceeded)))
+                .orElse(leg));
+    }
+
+    /**
+     * adds the remaining budget as a header and refuses to send requests whose deadline already passed
+     */
+    public static ExchangeFilterFunction propagatingFilter() {
+        return (request, next) -> Mono.deferContextual(context -> context.<Deadline>getOrEmpty(Deadline.class)
+                .map(deadline -> deadline.isExpired()
+                        ? Mono.<ClientResponse>error(exceeded())
+                        : next.exchange(ClientRequest.from(request)
+                                .header(HEADER, String.valueOf(deadline.remaining().toMillis()))
+                                .build()))
+                .orElseGet(() -> next.exchange(request)));
+    }
+
+    private static DeadlineExceededException exceeded() {
+        return new DeadlineExceededException("deadline exceeded");
+    }
+
+    private static long now() {
+        return Schedulers.parallel().now(TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,108 @@
+package io.jay.reactorsamples.util;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Bridges a future based producer into a Flux driven by downstream demand.
+ * The producer is asked for at most the outstanding demand (capped by maxBatchSize),
+ * no new batch is started while the previous one is in flight or while demand is zero,
+ * and cancelling the Flux cancels the in-flight future.
+ * A batch smaller than the requested count (or empty) completes the Flux.
+ * Callback based SDKs can be adapted by completing a CompletableFuture from the callback.
+ */
+public class FutureFluxAdapter {
+
+    public static <T> Flux<T> fromFutures(Function<Integer, CompletableFuture<List<T>>> producer, int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        return Flux.create(sink -> new DemandBridge<>(sink, producer, maxBatchSize).start(),
+                FluxSink.OverflowStrategy.ERROR);
+    }
+
+    private static class DemandBridge<T> {
+        private final FluxSink<T> sink;
+        private final Function<Integer, CompletableFuture<List<T>>> producer;
+        private final int maxBatchSize;
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile CompletableFuture<List<T>> inFlight;
+        private volatile boolean done;
+
+        DemandBridge(FluxSink<T> sink, Function<Integer, CompletableFuture<List<T>>> producer, int maxBatchSize) {
+            this.sink = sink;
+            this.producer = producer;
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        void start() {
+            sink.onCancel(this::cancel);
+            sink.onRequest(n -> drain());
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!done && inFlight == null && !sink.isCancelled()) {
+                    long demand = sink.requestedFromDownstream();
+                    if (demand > 0) {
+                        int count = (int) Math.min(demand, maxBatchSize);
+                        requestBatch(count);
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void requestBatch(int count) {
+            CompletableFuture<List<T>> future;
+            try {
+                future = producer.apply(count);
+            } catch (Throwable ex) {
+                done = true;
+                sink.error(ex);
+                return;
+            }
+            inFlight = future;
+            future.whenComplete((items, ex) -> onBatch(count, items, ex));
+        }
+
+        private void onBatch(int count, List<T> items, Throwable ex) {
+            if (done || sink.isCancelled()) {
+                return;
+            }
+            if (ex != null) {
+                done = true;
+                sink.error(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                return;
+            }
+            if (items != null) {
+                items.forEach(sink::next);
+            }
+            if (items == null || items.size() < count) {
+                done = true;
+                sink.complete();
+                return;
+            }
+            inFlight = null;
+            drain();
+        }
+
+        private void cancel() {
+            done = true;
+            var future = inFlight;
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.jay.reactorsamples.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * inclusive id range
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdRange {
+    private long fromId;
+    private long toId;
+
+    /**
+     * splits [fromId, toId] into at most partitions contiguous ranges whose sizes differ by at most one
+     */
+    public static List<IdRange> split(long fromId, long toId, int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive");
+        }
+        if (toId < fromId) {
+            return List.of();
+        }
+        long total = toId - fromId + 1;
+        long count = Math.min(partitions, total);
+        long base = total / count;
+        long remainder = total % count;
+        var ranges = new ArrayList<IdRange>((int) count);
+        long start = fromId;
+        for (long i = 0; i < count; i++) {
+            long size = base + (i < remainder ? 1 : 0);
+            ranges.add(new IdRange(start, start + size - 1));
+            start += size;
+        }
+        return ranges;
+    }
+}
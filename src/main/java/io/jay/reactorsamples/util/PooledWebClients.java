@@ -0,0 +1,56 @@
+package io.jay.reactorsamples.util;
+
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebClient on its own Reactor Netty connection pool, sized for partitioned fetches so every concurrently
+ * fetched range gets its own connection instead of queueing on the shared default pool.
+ * One pool is created per poolName and shared by every builder asking for that name with the same
+ * maxConnections, asking for a pool that exists with a different size fails instead of silently reusing it.
+ */
+public class PooledWebClients {
+
+    private static final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    public static WebClient.Builder builder(String poolName, int maxConnections) {
+        var pool = pools.computeIfAbsent(poolName, name -> new Pool(ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxConnections * 4)
+                .pendingAcquireTimeout(Duration.ofSeconds(10))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build(), maxConnections));
+        if (pool.maxConnections != maxConnections) {
+            throw new IllegalArgumentException("pool " + poolName + " already exists with " + pool.maxConnections
+                    + " connections, not " + maxConnections);
+        }
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(pool.connectionProvider)));
+    }
+
+    /**
+     * closes the pool for poolName, WebClients built on it can no longer connect
+     */
+    public static void dispose(String poolName) {
+        var pool = pools.remove(poolName);
+        if (pool != null) {
+            pool.connectionProvider.dispose();
+        }
+    }
+
+    private static class Pool {
+        final ConnectionProvider connectionProvider;
+        final int maxConnections;
+
+        Pool(ConnectionProvider connectionProvider, int maxConnections) {
+            this.connectionProvider = connectionProvider;
+            this.maxConnections = maxConnections;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.jay.reactorsamples.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent, bounded string canonicalization: equal strings share one instance and an int id.
+ * Once maxSize distinct strings are known new strings are no longer added,
+ * canonicalize() hands them back as they are and intern() returns -1.
+ */
+public class StringDictionary {
+
+    private static final StringDictionary shared = new StringDictionary(1 << 20);
+
+    private final int maxSize;
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Object valuesLock = new Object();
+    private volatile String[] values = new String[64];
+    /* written after values[id] so any id below it can be looked up */
+    private volatile int size;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public StringDictionary(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * dictionary used when decoding MovieInfo cast names. Titles are almost all unique and are not interned,
+     * they would only fill the dictionary and crowd out the names that do repeat.
+     */
+    public static StringDictionary shared() {
+        return shared;
+    }
+
+    public String canonicalize(String value) {
+        int id = intern(value);
+        return id < 0 ? value : lookup(id);
+    }
+
+    /**
+     * @return the id of value, or -1 when value is null or the dictionary is full
+     */
+    public int intern(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            hits.increment();
+            return id;
+        }
+        misses.increment();
+        if (size >= maxSize) {
+            rejected.increment();
+            return -1;
+        }
+        id = ids.computeIfAbsent(value, this::assignId);
+        if (id == null) {
+            rejected.increment();
+            return -1;
+        }
+        return id;
+    }
+
+    public String lookup(int id) {
+        if (id < 0 || id >= size()) {
+            return null;
+        }
+        return values[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public double hitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private Integer assignId(String value) {
+        synchronized (valuesLock) {
+            int id = size;
+            if (id >= maxSize) {
+                return null;
+            }
+            var current = values;
+            if (id >= current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[id] = value;
+            values = current;
+            size = id + 1;
+            return id;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.jay.reactorsamples.warmup;
+
+import lombok.extern.log4j.Log4j2;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs every scenario to completion in a loop until JIT compilation settles or the budget runs out.
+ * Compilation is considered settled once the JIT spent at most stableCompilationMillis per sampleInterval
+ * for stableSamples intervals in a row. Without compilation time monitoring it simply runs for the budget.
+ */
+@Log4j2
+public class JitWarmup {
+
+    private final List<Supplier<? extends Publisher<?>>> scenarios;
+    private final Duration budget;
+    private final Duration sampleInterval;
+    private final long stableCompilationMillis;
+    private final int stableSamples;
+    private final CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+    private final AtomicReference<WarmupResult> lastResult = new AtomicReference<>();
+
+    public JitWarmup(List<Supplier<? extends Publisher<?>>> scenarios, Duration budget) {
+        this(scenarios, budget, Duration.ofMillis(500), 5, 3);
+    }
+
+    public JitWarmup(List<Supplier<? extends Publisher<?>>> scenarios, Duration budget, Duration sampleInterval,
+                     long stableCompilationMillis, int stableSamples) {
+        this.scenarios = List.copyOf(scenarios);
+        this.budget = budget;
+        this.sampleInterval = sampleInterval;
+        this.stableCompilationMillis = stableCompilationMillis;
+        this.stableSamples = stableSamples;
+    }
+
+    public Mono<WarmupResult> run() {
+        return Mono.fromCallable(this::warm)
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(result -> {
+                    lastResult.set(result);
+                    log.info("warm-up finished in {} ms after {} iterations, {} ms compiling, stabilized: {}",
+                            result.getDuration().toMillis(), result.getIterations(), result.getCompilationMillis(), result.isStabilized());
+                });
+    }
+
+    /**
+     * null until a warm-up completed
+     */
+    public WarmupResult lastResult() {
+        return lastResult.get();
+    }
+
+    private WarmupResult warm() {
+        boolean monitored = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        long compilationAtStart = monitored ? compilation.getTotalCompilationTime() : 0;
+
+        long sampleStart = start;
+        long compilationAtSample = compilationAtStart;
+        long iterations = 0;
+        int quietSamples = 0;
+        boolean stabilized = false;
+        while (System.nanoTime() < deadline) {
+            for (Supplier<? extends Publisher<?>> scenario : scenarios) {
+                Flux.from(scenario.get()).blockLast();
+            }
+            iterations++;
+
+            long now = System.nanoTime();
+            if (monitored && now - sampleStart >= sampleInterval.toNanos()) {
+                long compiled = compilation.getTotalCompilationTime();
+                quietSamples = compiled - compilationAtSample <= stableCompilationMillis ? quietSamples + 1 : 0;
+                compilationAtSample = compiled;
+                sampleStart = now;
+                if (quietSamples >= stableSamples) {
+                    stabilized = true;
+                    break;
+                }
+            }
+        }
+
+        long compilationMillis = monitored ? compilation.getTotalCompilationTime() - compilationAtStart : 0;
+        return new WarmupResult(Duration.ofNanos(System.nanoTime() - start), iterations, compilationMillis, stabilized);
+    }
+}
@@ -0,0 +1,17 @@
+package io.jay.reactorsamples.warmup;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarmupResult {
+    private Duration duration;
+    private long iterations;
+    private long compilationMillis;
+    private boolean stabilized;
+}
@@ -0,0 +1,54 @@
+package io.jay.reactorsamples.analytics;
+
+import io.jay.reactorsamples.service.MovieInfoService;
+import io.jay.reactorsamples.service.RevenueService;
+import io.jay.reactorsamples.service.ReviewService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogAnalyticsTests {
+
+    private CatalogAnalytics analytics;
+
+    @BeforeEach
+    void setup() {
+        analytics = CatalogAnalytics.load(new MovieInfoService(), new ReviewService(), new RevenueService()).block();
+    }
+
+    @Test
+    void byYear() {
+        StepVerifier.create(analytics.byYear())
+                .assertNext(aggregate -> {
+                    assertEquals("2005", aggregate.getGroup());
+                    assertEquals(1, aggregate.getMovies());
+                    assertEquals(2, aggregate.getReviews());
+                    assertEquals(8.95, aggregate.getAverageRating(), 0.0001);
+                })
+                .assertNext(aggregate -> {
+                    assertEquals("2008", aggregate.getGroup());
+                    assertEquals(2, aggregate.getMovies());
+                    assertEquals(2_000_000, aggregate.getTotalBudget());
+                    assertEquals(10_000_000, aggregate.getTotalBoxOffice());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void byCast() {
+        var aggregates = analytics.byCast()
+                .sort(Comparator.comparing(GroupAggregate::getGroup))
+                .collectList()
+                .block();
+
+        assertEquals(4, aggregates.size());
+        assertEquals("Christian Bale", aggregates.get(0).getGroup());
+        assertEquals(3, aggregates.get(0).getMovies());
+        assertEquals(6, aggregates.get(0).getReviews());
+        assertEquals(1, aggregates.get(3).getMovies());
+    }
+}
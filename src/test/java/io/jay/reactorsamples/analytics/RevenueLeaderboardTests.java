@@ -0,0 +1,100 @@
+package io.jay.reactorsamples.analytics;
+
+import io.jay.reactorsamples.domain.Revenue;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RevenueLeaderboardTests {
+
+    private RevenueLeaderboard revenueLeaderboard = new RevenueLeaderboard(2);
+
+    @Test
+    void leaderboard_onlyEmitsWhenTopKChanges() {
+        var updates = Flux.just(
+                revenue(100L, 100, 500),
+                revenue(101L, 100, 300),
+                revenue(102L, 1000, 200),
+                revenue(101L, 100, 800));
+
+        StepVerifier.create(revenueLeaderboard.leaderboard(updates))
+                .assertNext(leaderboard -> assertEquals(List.of(100L), ids(leaderboard.getByBoxOffice())))
+                .assertNext(leaderboard -> assertEquals(List.of(100L, 101L), ids(leaderboard.getByBoxOffice())))
+                .assertNext(leaderboard -> {
+                    assertEquals(List.of(101L, 100L), ids(leaderboard.getByBoxOffice()));
+                    assertEquals(List.of(101L, 100L), ids(leaderboard.getByRoi()));
+                    assertEquals(7.0, leaderboard.getByRoi().get(0).getRoi());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void leaderboard_promotesOutsiderWhenMemberDrops() {
+        var updates = Flux.just(
+                revenue(100L, 100, 500),
+                revenue(101L, 100, 300),
+                revenue(102L, 100, 200),
+                revenue(100L, 100, 100));
+
+        StepVerifier.create(revenueLeaderboard.leaderboard(updates).last())
+                .assertNext(leaderboard -> {
+                    assertEquals(List.of(101L, 102L), ids(leaderboard.getByBoxOffice()));
+                    assertEquals(List.of(101L, 102L), ids(leaderboard.getByRoi()));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void leaderboard_rejectsUpdatesWithoutMovieId() {
+        StepVerifier.create(revenueLeaderboard.leaderboard(Flux.just(revenue(null, 100, 500))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void tumbling_restartsRankingsEveryWindow() {
+        StepVerifier.withVirtualTime(() -> revenueLeaderboard.tumbling(
+                        Flux.just(revenue(100L, 100, 500), revenue(101L, 100, 300))
+                                .delayElements(Duration.ofSeconds(3)),
+                        Duration.ofSeconds(5)))
+                .thenAwait(Duration.ofSeconds(10))
+                .assertNext(leaderboard -> assertEquals(List.of(100L), ids(leaderboard.getByBoxOffice())))
+                .assertNext(leaderboard -> assertEquals(List.of(101L), ids(leaderboard.getByBoxOffice())))
+                .verifyComplete();
+    }
+
+    @Test
+    void sliding_evictsStaleEntries() {
+        StepVerifier.withVirtualTime(() -> revenueLeaderboard.sliding(
+                        Flux.just(revenue(100L, 100, 500))
+                                .concatWith(Flux.just(revenue(101L, 100, 300)).delaySubscription(Duration.ofSeconds(8)))
+                                .concatWith(Flux.never()),
+                        Duration.ofSeconds(5)))
+                .expectSubscription()
+                .assertNext(leaderboard -> assertEquals(List.of(100L), ids(leaderboard.getByBoxOffice())))
+                .thenAwait(Duration.ofSeconds(6))
+                .assertNext(leaderboard -> assertEquals(List.of(), ids(leaderboard.getByBoxOffice())))
+                .thenAwait(Duration.ofSeconds(3))
+                .assertNext(leaderboard -> assertEquals(List.of(101L), ids(leaderboard.getByBoxOffice())))
+                .thenCancel()
+                .verify();
+    }
+
+    private static Revenue revenue(Long movieInfoId, double budget, double boxOffice) {
+        return Revenue.builder()
+                .movieInfoId(movieInfoId)
+                .budget(budget)
+                .boxOffice(boxOffice)
+                .build();
+    }
+
+    private static List<Long> ids(List<LeaderboardEntry> entries) {
+        return entries.stream().map(LeaderboardEntry::getMovieInfoId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,138 @@
+package io.jay.reactorsamples.benchmark;
+
+import io.jay.reactorsamples.analytics.CatalogAnalytics;
+import io.jay.reactorsamples.analytics.GroupAggregate;
+import io.jay.reactorsamples.catalog.ColumnarMovieInfoStore;
+import io.jay.reactorsamples.catalog.ReviewAggregateStore;
+import io.jay.reactorsamples.domain.Movie;
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.domain.Revenue;
+import io.jay.reactorsamples.domain.Review;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Columnar fork-join group-by versus the naive Flux groupBy over Movie objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsBenchmark {
+
+    @Param({"200000"})
+    int movies;
+
+    @Param({"5000"})
+    int castPool;
+
+    private CatalogAnalytics analytics;
+    private List<Movie> movieObjects;
+    private Map<Long, Revenue> revenues;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var random = new Random(42);
+        var catalog = new ColumnarMovieInfoStore(movies);
+        var reviews = new ReviewAggregateStore(movies);
+        revenues = new HashMap<>();
+        movieObjects = new ArrayList<>(movies);
+
+        for (long id = 0; id < movies; id++) {
+            var cast = List.of("cast " + random.nextInt(castPool), "cast " + random.nextInt(castPool), "cast " + random.nextInt(castPool));
+            var movieInfo = new MovieInfo(id, "movie " + id, 1950 + random.nextInt(75), cast, LocalDate.ofEpochDay(random.nextInt(20000)));
+            var reviewList = List.of(new Review(id * 2, id, "good", random.nextDouble() * 10),
+                    new Review(id * 2 + 1, id, "bad", random.nextDouble() * 10));
+            var revenue = new Revenue(id, random.nextDouble() * 1_000_000, random.nextDouble() * 5_000_000);
+
+            catalog.add(movieInfo);
+            reviewList.forEach(reviews::accept);
+            revenues.put(id, revenue);
+            var movie = new Movie(movieInfo, reviewList);
+            movie.setRevenue(revenue);
+            movieObjects.add(movie);
+        }
+        analytics = new CatalogAnalytics(catalog, reviews, revenues);
+    }
+
+    @Benchmark
+    public List<GroupAggregate> columnarByYear() {
+        return analytics.byYear().collectList().block();
+    }
+
+    @Benchmark
+    public List<GroupAggregate> columnarByCast() {
+        return analytics.byCast().collectList().block();
+    }
+
+    @Benchmark
+    public List<GroupAggregate> fluxGroupByYear() {
+        return Flux.fromIterable(movieObjects)
+                .groupBy(movie -> String.valueOf(movie.getMovieInfo().getYear()))
+                .flatMap(group -> reduce(group.key(), group), Integer.MAX_VALUE)
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public List<GroupAggregate> fluxGroupByCast() {
+        return Flux.fromIterable(movieObjects)
+                .flatMapIterable(movie -> movie.getMovieInfo().getCast().stream()
+                        .map(castMember -> Tuples.of(castMember, movie))
+                        .collect(Collectors.toList()))
+                .groupBy(tuple -> tuple.getT1())
+                .flatMap(group -> reduce(group.key(), group.map(tuple -> tuple.getT2())), Integer.MAX_VALUE)
+                .collectList()
+                .block();
+    }
+
+    private static Mono<GroupAggregate> reduce(String key, Flux<Movie> movies) {
+        return movies.reduce(new GroupAggregate(key, 0, 0, 0, 0, 0), (aggregate, movie) -> {
+            aggregate.setMovies(aggregate.getMovies() + 1);
+            for (Review review : movie.getReviewList()) {
+                aggregate.setAverageRating(aggregate.getAverageRating() + review.getRating());
+                aggregate.setReviews(aggregate.getReviews() + 1);
+            }
+            aggregate.setTotalBudget(aggregate.getTotalBudget() + movie.getRevenue().getBudget());
+            aggregate.setTotalBoxOffice(aggregate.getTotalBoxOffice() + movie.getRevenue().getBoxOffice());
+            return aggregate;
+        }).map(aggregate -> {
+            aggregate.setAverageRating(aggregate.getReviews() == 0 ? 0 : aggregate.getAverageRating() / aggregate.getReviews());
+            return aggregate;
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AnalyticsBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,97 @@
+package io.jay.reactorsamples.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jay.reactorsamples.codec.MovieCodecs;
+import io.jay.reactorsamples.domain.Movie;
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.domain.Revenue;
+import io.jay.reactorsamples.domain.Review;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * JSON versus Smile encode/decode throughput for a Movie with 50 reviews.
+ * Payload sizes are printed before the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper smileMapper;
+    private Movie movie;
+    private byte[] json;
+    private byte[] smile;
+
+    @Setup
+    public void setup() throws IOException {
+        jsonMapper = MovieCodecs.jsonMapper();
+        smileMapper = MovieCodecs.smileMapper();
+        movie = movieWithReviews(50);
+        json = jsonMapper.writeValueAsBytes(movie);
+        smile = smileMapper.writeValueAsBytes(movie);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return jsonMapper.writeValueAsBytes(movie);
+    }
+
+    @Benchmark
+    public byte[] encodeSmile() throws IOException {
+        return smileMapper.writeValueAsBytes(movie);
+    }
+
+    @Benchmark
+    public Movie decodeJson() throws IOException {
+        return jsonMapper.readValue(json, Movie.class);
+    }
+
+    @Benchmark
+    public Movie decodeSmile() throws IOException {
+        return smileMapper.readValue(smile, Movie.class);
+    }
+
+    static Movie movieWithReviews(int reviews) {
+        var movieInfo = new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane", "Liam Neeson"),
+                LocalDate.parse("2005-06-15"));
+        var reviewList = LongStream.rangeClosed(1, reviews)
+                .mapToObj(id -> new Review(id, 100L, "Review number " + id + " - a dark and thoughtful reboot", 5 + (id % 50) / 10.0))
+                .collect(Collectors.toList());
+        var movie = new Movie(movieInfo, reviewList);
+        movie.setRevenue(new Revenue(100L, 150_000_000, 373_413_297));
+        return movie;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var benchmark = new CodecBenchmark();
+        benchmark.setup();
+        System.out.printf("payload bytes: json=%d smile=%d%n", benchmark.json.length, benchmark.smile.length);
+
+        new Runner(new OptionsBuilder()
+                .include(CodecBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
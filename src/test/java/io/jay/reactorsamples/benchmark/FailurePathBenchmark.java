@@ -0,0 +1,111 @@
+package io.jay.reactorsamples.benchmark;
+
+import io.jay.reactorsamples.concurrency.AdaptiveConcurrencyLimiter;
+import io.jay.reactorsamples.domain.Movie;
+import io.jay.reactorsamples.domain.Review;
+import io.jay.reactorsamples.exception.CodedException;
+import io.jay.reactorsamples.exception.NetworkException;
+import io.jay.reactorsamples.service.MovieInfoService;
+import io.jay.reactorsamples.service.MovieReactiveService;
+import io.jay.reactorsamples.service.ReviewService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of MovieReactiveService's failure paths while every review call fails with a NetworkException:
+ * getAllMovies (onErrorMap to MovieException) and getAllMoviesRetry (stackless MovieExceptions, retry(3)),
+ * with stack trace capture on and off and with a fresh or a preallocated NetworkException at the source.
+ * getAllMoviesRetryWhen is left out, its backoff sleeps would dominate. The pipelines log() every signal and
+ * log each mapped error, so the reactor, service and limiter loggers are switched off while it runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FailurePathBenchmark {
+
+    private static final String[] QUIET_LOGGERS = {
+            "reactor", MovieReactiveService.class.getName(), AdaptiveConcurrencyLimiter.class.getName()};
+
+    @Param({"true", "false"})
+    public boolean captureStackTraces;
+
+    @Param({"false", "true"})
+    public boolean sharedNetworkException;
+
+    private MovieReactiveService movieReactiveService;
+
+    @Setup
+    public void setup() {
+        CodedException.setCaptureStackTraces(captureStackTraces);
+        var loggingSystem = LoggingSystem.get(FailurePathBenchmark.class.getClassLoader());
+        for (String logger : QUIET_LOGGERS) {
+            loggingSystem.setLogLevel(logger, LogLevel.OFF);
+        }
+        movieReactiveService = new MovieReactiveService(new MovieInfoService(), new FailingReviewService(sharedNetworkException));
+    }
+
+    @TearDown
+    public void tearDown() {
+        CodedException.setCaptureStackTraces(true);
+        var loggingSystem = LoggingSystem.get(FailurePathBenchmark.class.getClassLoader());
+        for (String logger : QUIET_LOGGERS) {
+            loggingSystem.setLogLevel(logger, null);
+        }
+    }
+
+    @Benchmark
+    public Long getAllMovies() {
+        return movieReactiveService.getAllMovies()
+                .onErrorResume(ex -> Flux.<Movie>empty())
+                .count()
+                .block();
+    }
+
+    @Benchmark
+    public Long getAllMoviesRetry() {
+        return movieReactiveService.getAllMoviesRetry()
+                .onErrorResume(ex -> Flux.<Movie>empty())
+                .count()
+                .block();
+    }
+
+    private static class FailingReviewService extends ReviewService {
+        private final boolean shared;
+
+        FailingReviewService(boolean shared) {
+            this.shared = shared;
+        }
+
+        @Override
+        public Flux<Review> retrieveReviewsFlux(long movieInfoId) {
+            return Flux.error(shared ? NetworkException.shared() : new NetworkException("review backend down", movieInfoId));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(FailurePathBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,101 @@
+package io.jay.reactorsamples.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jay.reactorsamples.codec.MovieCodecs;
+import io.jay.reactorsamples.domain.Movie;
+import io.jay.reactorsamples.domain.MovieInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Default reflective databind versus the hand-written DomainJsonModule on the same JSON payloads:
+ * a Movie with 50 reviews and a page of 500 MovieInfos. Runs with the GC profiler so
+ * gc.alloc.rate.norm (bytes per operation) is reported next to throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    private static final TypeReference<List<MovieInfo>> MOVIE_INFO_LIST = new TypeReference<>() {
+    };
+
+    private ObjectMapper databindMapper;
+    private ObjectMapper precompiledMapper;
+    private Movie movie;
+    private byte[] movieJson;
+    private byte[] movieInfoPageJson;
+
+    @Setup
+    public void setup() throws IOException {
+        databindMapper = MovieCodecs.jsonMapper();
+        precompiledMapper = MovieCodecs.precompiledJsonMapper();
+        movie = CodecBenchmark.movieWithReviews(50);
+        movieJson = precompiledMapper.writeValueAsBytes(movie);
+        var page = LongStream.range(0, 500)
+                .mapToObj(id -> new MovieInfo(id, "Movie " + id, 1990 + (int) (id % 30),
+                        List.of("Christian Bale", "Michael Cane", "Cast " + (id % 40)), LocalDate.ofEpochDay(7_000 + id)))
+                .collect(Collectors.toList());
+        movieInfoPageJson = precompiledMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encodeMovieDatabind() throws IOException {
+        return databindMapper.writeValueAsBytes(movie);
+    }
+
+    @Benchmark
+    public byte[] encodeMoviePrecompiled() throws IOException {
+        return precompiledMapper.writeValueAsBytes(movie);
+    }
+
+    @Benchmark
+    public Movie decodeMovieDatabind() throws IOException {
+        return databindMapper.readValue(movieJson, Movie.class);
+    }
+
+    @Benchmark
+    public Movie decodeMoviePrecompiled() throws IOException {
+        return precompiledMapper.readValue(movieJson, Movie.class);
+    }
+
+    @Benchmark
+    public List<MovieInfo> decodeMovieInfoPageDatabind() throws IOException {
+        return databindMapper.readValue(movieInfoPageJson, MOVIE_INFO_LIST);
+    }
+
+    @Benchmark
+    public List<MovieInfo> decodeMovieInfoPagePrecompiled() throws IOException {
+        return precompiledMapper.readValue(movieInfoPageJson, MOVIE_INFO_LIST);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JsonCodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,93 @@
+package io.jay.reactorsamples.catalog;
+
+import io.jay.reactorsamples.domain.Movie;
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.domain.ReviewSummary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogSnapshotTests {
+
+    @TempDir
+    Path directory;
+
+    private Movie batmanBegins = new Movie(
+            new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+            new ReviewSummary(100L, 2, 8.95, 8.9, 9.0, new int[]{0, 0, 0, 0, 0, 0, 0, 0, 1, 1}));
+    private Movie darkKnight = new Movie(
+            new MovieInfo(101L, "The Dark Knight", 2008, List.of("Christian Bale", "HeathLedger"), LocalDate.parse("2008-07-18")),
+            new ReviewSummary(101L, 0, 0, 0, 0, new int[ReviewAggregateStore.HISTOGRAM_BINS]));
+
+    @Test
+    void write_thenLookupByIdAndScanInIdOrder() {
+        var path = directory.resolve("catalog.snapshot");
+
+        var snapshot = CatalogSnapshot.write(path, 1, Flux.just(darkKnight, batmanBegins)).block();
+
+        assertEquals(1, snapshot.version());
+        assertEquals(2, snapshot.size());
+        StepVerifier.create(snapshot.movie(101L))
+                .expectNext(darkKnight)
+                .verifyComplete();
+        StepVerifier.create(snapshot.movie(999L))
+                .verifyComplete();
+        StepVerifier.create(snapshot.movies())
+                .expectNext(batmanBegins, darkKnight)
+                .verifyComplete();
+    }
+
+    @Test
+    void load_readsTheLatestVersionAfterReplace() {
+        var path = directory.resolve("catalog.snapshot");
+        var first = CatalogSnapshot.write(path, 1, Flux.just(batmanBegins)).block();
+
+        CatalogSnapshot.write(path, 2, Flux.just(batmanBegins, darkKnight)).block();
+
+        StepVerifier.create(CatalogSnapshot.load(path))
+                .assertNext(snapshot -> {
+                    assertEquals(2, snapshot.version());
+                    assertEquals(2, snapshot.size());
+                })
+                .verifyComplete();
+        StepVerifier.create(first.movie(100L))
+                .expectNext(batmanBegins)
+                .verifyComplete();
+    }
+
+    @Test
+    void load_isEmptyWithoutSnapshot() {
+        StepVerifier.create(CatalogSnapshot.load(directory.resolve("missing.snapshot")))
+                .verifyComplete();
+    }
+
+    @Test
+    void open_rejectsForeignFiles() throws IOException {
+        var path = Files.write(directory.resolve("catalog.snapshot"), "not a snapshot at all, really".getBytes());
+
+        assertThrows(IllegalStateException.class, () -> CatalogSnapshot.open(path));
+    }
+
+    @Test
+    void open_rejectsTruncatedFiles() throws IOException {
+        var path = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(path, 1, Flux.just(batmanBegins, darkKnight)).block();
+        var bytes = Files.readAllBytes(path);
+
+        for (int length : new int[]{40, bytes.length - 60, bytes.length - 1}) {
+            var truncated = Files.write(directory.resolve("truncated-" + length + ".snapshot"), Arrays.copyOf(bytes, length));
+            assertThrows(IllegalStateException.class, () -> CatalogSnapshot.open(truncated), "truncated to " + length);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.jay.reactorsamples.catalog;
+
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.service.MovieInfoService;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColumnarMovieInfoStoreTests {
+
+    private MovieInfoService movieInfoService = new MovieInfoService();
+
+    @Test
+    void scan_returnsViewsEqualToLoadedMovieInfos() {
+        var store = new ColumnarMovieInfoStore(1);
+        var movieInfos = movieInfoService.retrieveMoviesFlux().collectList().block();
+
+        StepVerifier.create(store.load(movieInfoService.retrieveMoviesFlux()))
+                .verifyComplete();
+
+        StepVerifier.create(store.scan())
+                .expectNextSequence(movieInfos)
+                .verifyComplete();
+        assertEquals(4, store.castDictionarySize());
+    }
+
+    @Test
+    void castMembersAreDictionaryEncoded() {
+        var store = new ColumnarMovieInfoStore();
+        store.load(movieInfoService.retrieveMoviesFlux()).block();
+
+        assertEquals(store.castId(0, 0), store.castId(1, 0));
+        assertEquals("Christian Bale", store.castName(store.castId(2, 0)));
+        assertEquals(LocalDate.parse("2012-07-20").toEpochDay(), store.releaseEpochDay(2));
+    }
+
+    @Test
+    void nullFieldsRoundTrip() {
+        var store = new ColumnarMovieInfoStore();
+        int row = store.add(new MovieInfo(1L, null, null, List.of(), null));
+
+        var view = store.get(row);
+        assertEquals(1L, view.getMovieInfoId());
+        assertNull(view.getName());
+        assertNull(view.getYear());
+        assertNull(view.getRelease_date());
+        assertThrows(UnsupportedOperationException.class, () -> view.setName("changed"));
+    }
+}
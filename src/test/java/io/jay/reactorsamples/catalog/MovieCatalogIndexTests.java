@@ -0,0 +1,63 @@
+package io.jay.reactorsamples.catalog;
+
+import io.jay.reactorsamples.domain.MovieInfo;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovieCatalogIndexTests {
+
+    @Test
+    void compressedIntSet_roundTripsAndIntersects() {
+        var set = CompressedIntSet.of(0, 1, 127, 128, 100_000);
+
+        assertArrayEquals(new int[]{0, 1, 127, 128, 100_000}, set.toArray());
+        assertTrue(set.contains(128));
+        assertFalse(set.contains(129));
+        assertArrayEquals(new int[]{1, 128}, set.intersect(CompressedIntSet.of(1, 5, 128)).toArray());
+    }
+
+    @Test
+    void rebuild_swapsInNewCatalogVersion() {
+        var index = new MovieCatalogIndex();
+        var batmanBegins = new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian Bale"), LocalDate.parse("2005-06-15"));
+        var prestige = new MovieInfo(103L, "The Prestige", 2006, List.of("Christian Bale", "Hugh Jackman"), LocalDate.parse("2006-10-20"));
+
+        index.rebuild(Flux.just(batmanBegins)).block();
+        StepVerifier.create(index.byCast("Christian Bale"))
+                .expectNext(batmanBegins)
+                .verifyComplete();
+
+        index.rebuild(Flux.just(batmanBegins, prestige)).block();
+        StepVerifier.create(index.byCast("Christian Bale"))
+                .expectNext(batmanBegins, prestige)
+                .verifyComplete();
+        StepVerifier.create(index.byYear(2006))
+                .expectNext(prestige)
+                .verifyComplete();
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void releasedBetween_acceptsOpenEndedBounds() {
+        var index = new MovieCatalogIndex();
+        var batmanBegins = new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian Bale"), LocalDate.parse("2005-06-15"));
+        var prestige = new MovieInfo(103L, "The Prestige", 2006, List.of("Christian Bale", "Hugh Jackman"), LocalDate.parse("2006-10-20"));
+        index.rebuild(Flux.just(prestige, batmanBegins)).block();
+
+        StepVerifier.create(index.releasedBetween(LocalDate.MIN, LocalDate.MAX))
+                .expectNext(batmanBegins, prestige)
+                .verifyComplete();
+        StepVerifier.create(index.releasedBetween(LocalDate.parse("2006-01-01"), LocalDate.MAX))
+                .expectNext(prestige)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,56 @@
+package io.jay.reactorsamples.catalog;
+
+import io.jay.reactorsamples.domain.MovieChange;
+import io.jay.reactorsamples.domain.MovieInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MovieChangeTrackerTests {
+
+    private MovieInfo batmanBegins = new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+
+    @Test
+    void classify_detectsNewChangedAndRemovedMovies() {
+        var tracker = new MovieChangeTracker();
+
+        assertEquals(MovieChange.Type.ADDED, tracker.classify(batmanBegins, 0));
+        tracker.commit(100L);
+        assertEquals(List.of(), tracker.endPass());
+
+        assertNull(tracker.classify(new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")), 0));
+        assertEquals(MovieChange.Type.UPDATED, tracker.classify(batmanBegins, 1));
+        tracker.commit(100L);
+        tracker.endPass();
+
+        assertEquals(List.of(100L), tracker.endPass());
+        assertEquals(0, tracker.size());
+    }
+
+    @Test
+    void classify_reportsUncommittedChangeAgain() {
+        var tracker = new MovieChangeTracker();
+
+        assertEquals(MovieChange.Type.ADDED, tracker.classify(batmanBegins, 0));
+        tracker.endPass();
+
+        assertEquals(MovieChange.Type.ADDED, tracker.classify(batmanBegins, 0));
+        tracker.commit(100L);
+        tracker.endPass();
+        assertNull(tracker.classify(batmanBegins, 0));
+    }
+
+    @Test
+    void contentHash_coversEveryField() {
+        var castMoved = new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian BaleMichael Cane"), LocalDate.parse("2005-06-15"));
+        var rereleased = new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-16"));
+
+        assertNotEquals(MovieChangeTracker.contentHash(batmanBegins), MovieChangeTracker.contentHash(castMoved));
+        assertNotEquals(MovieChangeTracker.contentHash(batmanBegins), MovieChangeTracker.contentHash(rereleased));
+    }
+}
@@ -0,0 +1,45 @@
+package io.jay.reactorsamples.catalog;
+
+import io.jay.reactorsamples.domain.Review;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReviewAggregateStoreTests {
+
+    @Test
+    void ingest_maintainsAggregatesPerMovie() {
+        var store = new ReviewAggregateStore(1);
+        var reviews = Flux.just(
+                new Review(1L, 100L, "Awesome Movie", 8.9),
+                new Review(2L, 100L, "Excellent Movie", 9.0),
+                new Review(3L, 101L, "Good Movie", 7.0),
+                new Review(4L, 101L, "No rating", null));
+
+        StepVerifier.create(store.ingest(reviews))
+                .verifyComplete();
+
+        var summary = store.summary(100L);
+        assertEquals(2, summary.getCount());
+        assertEquals(8.95, summary.getAverage(), 0.0001);
+        assertEquals(8.9, summary.getMin());
+        assertEquals(9.0, summary.getMax());
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0, 0, 0, 0, 1, 1}, summary.getHistogram());
+        assertEquals(1, store.count(101L));
+        assertEquals(7.0, store.average(101L));
+        assertEquals(2, store.movieCount());
+    }
+
+    @Test
+    void summary_forUnknownMovieIsEmpty() {
+        var store = new ReviewAggregateStore();
+
+        var summary = store.summary(100L);
+
+        assertEquals(0, summary.getCount());
+        assertEquals(ReviewAggregateStore.HISTOGRAM_BINS, summary.getHistogram().length);
+    }
+}
@@ -0,0 +1,49 @@
+package io.jay.reactorsamples.catalog;
+
+import io.jay.reactorsamples.domain.Review;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReviewSummaryAccumulatorTests {
+
+    @Test
+    void summary_matchesReviewAggregateStore() {
+        var reviews = List.of(
+                new Review(1L, 100L, "Awesome Movie", 8.9),
+                new Review(2L, 100L, "Excellent Movie", 9.0),
+                new Review(3L, 100L, "Good Movie", 7.0),
+                new Review(4L, 100L, "No rating", null));
+        var accumulator = new ReviewSummaryAccumulator();
+        reviews.forEach(accumulator::accept);
+        var store = new ReviewAggregateStore(1);
+        StepVerifier.create(store.ingest(Flux.fromIterable(reviews)))
+                .verifyComplete();
+
+        var summary = accumulator.summary(100L);
+        var expected = store.summary(100L);
+
+        assertEquals(expected.getCount(), summary.getCount());
+        assertEquals(expected.getAverage(), summary.getAverage());
+        assertEquals(expected.getMin(), summary.getMin());
+        assertEquals(expected.getMax(), summary.getMax());
+        assertArrayEquals(expected.getHistogram(), summary.getHistogram());
+    }
+
+    @Test
+    void summary_withoutRatingsIsEmpty() {
+        var accumulator = new ReviewSummaryAccumulator();
+        accumulator.accept(new Review(1L, 100L, "No rating", null));
+
+        var summary = accumulator.summary(100L);
+
+        assertEquals(0, summary.getCount());
+        assertEquals(0, summary.getAverage());
+        assertEquals(ReviewAggregateStore.HISTOGRAM_BINS, summary.getHistogram().length);
+    }
+}
@@ -0,0 +1,131 @@
+package io.jay.reactorsamples.codec;
+
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import io.jay.reactorsamples.domain.Movie;
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.domain.Revenue;
+import io.jay.reactorsamples.domain.Review;
+import io.jay.reactorsamples.util.StringDictionary;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DomainJsonModuleTests {
+
+    private Movie movie() {
+        var movie = new Movie(
+                new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+                List.of(new Review(1L, 100L, "Awesome Movie", 8.9), new Review(2L, 100L, "Excellent Movie", 9.0)));
+        movie.setRevenue(new Revenue(100L, 150_000_000, 373_413_297));
+        return movie;
+    }
+
+    @Test
+    void roundTripsMovieThroughJsonAndSmile() throws Exception {
+        var movie = movie();
+
+        var jsonMapper = MovieCodecs.precompiledJsonMapper();
+        var smileMapper = MovieCodecs.precompiledSmileMapper();
+
+        assertEquals(movie, jsonMapper.readValue(jsonMapper.writeValueAsBytes(movie), Movie.class));
+        assertEquals(movie, smileMapper.readValue(smileMapper.writeValueAsBytes(movie), Movie.class));
+    }
+
+    @Test
+    void readsWhatDefaultDatabindWrites() throws Exception {
+        var movie = movie();
+
+        var json = MovieCodecs.jsonMapper().writeValueAsBytes(movie);
+
+        assertEquals(movie, MovieCodecs.precompiledJsonMapper().readValue(json, Movie.class));
+    }
+
+    @Test
+    void acceptsIsoAndArrayDatesAndSkipsUnknownFields() throws Exception {
+        var mapper = MovieCodecs.precompiledJsonMapper();
+
+        var iso = mapper.readValue("{\"movieInfoId\":1,\"name\":\"Dark Knight\",\"rating\":{\"imdb\":9},\"release_date\":\"2008-07-18\"}", MovieInfo.class);
+        var array = mapper.readValue("{\"movieInfoId\":1,\"cast\":null,\"release_date\":[2008,7,18]}", MovieInfo.class);
+
+        assertEquals(LocalDate.of(2008, 7, 18), iso.getRelease_date());
+        assertEquals("Dark Knight", iso.getName());
+        assertEquals(LocalDate.of(2008, 7, 18), array.getRelease_date());
+        assertNull(array.getCast());
+        assertNull(array.getYear());
+    }
+
+    @Test
+    void rejectsObjectsAndArraysWhereScalarsAreExpected() {
+        var mapper = MovieCodecs.precompiledJsonMapper();
+
+        assertThrows(MismatchedInputException.class,
+                () -> mapper.readValue("{\"movieInfoId\":1,\"name\":{\"en\":\"Batman Begins\"},\"year\":2005}", MovieInfo.class));
+        assertThrows(MismatchedInputException.class,
+                () -> mapper.readValue("{\"reviewId\":[1],\"comment\":\"Awesome Movie\"}", Review.class));
+    }
+
+    @Test
+    void rejectsReleaseDateArraysThatAreNotYearMonthDay() {
+        var mapper = MovieCodecs.precompiledJsonMapper();
+
+        assertThrows(MismatchedInputException.class,
+                () -> mapper.readValue("{\"movieInfoId\":1,\"release_date\":[2005,6,15,0],\"name\":\"X\"}", MovieInfo.class));
+        assertThrows(MismatchedInputException.class,
+                () -> mapper.readValue("{\"movieInfoId\":1,\"release_date\":[2005,\"June\",15]}", MovieInfo.class));
+    }
+
+    @Test
+    void rejectsNonNumericValuesForNumbersLikeDatabind() throws Exception {
+        for (var mapper : List.of(MovieCodecs.precompiledJsonMapper(), MovieCodecs.jsonMapper())) {
+            assertThrows(InvalidFormatException.class, () -> mapper.readValue("{\"movieInfoId\":\"abc\"}", MovieInfo.class));
+            assertThrows(MismatchedInputException.class, () -> mapper.readValue("{\"reviewId\":1,\"rating\":true}", Review.class));
+            assertEquals(7L, mapper.readValue("{\"movieInfoId\":\"7\"}", MovieInfo.class).getMovieInfoId());
+        }
+    }
+
+    @Test
+    void decodesDataBuffersIntoMovieInfos() {
+        var decoder = new Jackson2JsonDecoder(MovieCodecs.precompiledJsonMapper());
+        var json = "[{\"movieInfoId\":100,\"name\":\"Batman Begins\",\"year\":2005,\"cast\":[\"Christian Bale\"],\"release_date\":\"2005-06-15\"},"
+                + "{\"movieInfoId\":101,\"name\":\"The Dark Knight\",\"year\":2008,\"cast\":[],\"release_date\":\"2008-07-18\"}]";
+        var buffer = new DefaultDataBufferFactory().wrap(json.getBytes(StandardCharsets.UTF_8));
+
+        var movieInfos = decoder.decode(Flux.just(buffer), ResolvableType.forClass(MovieInfo.class), MediaType.APPLICATION_JSON, Collections.emptyMap())
+                .cast(MovieInfo.class);
+
+        StepVerifier.create(movieInfos)
+                .expectNext(new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian Bale"), LocalDate.parse("2005-06-15")))
+                .expectNext(new MovieInfo(101L, "The Dark Knight", 2008, List.of(), LocalDate.parse("2008-07-18")))
+                .verifyComplete();
+    }
+
+    @Test
+    void canonicalizesCastButNotTitles() throws Exception {
+        var json = "{\"movieInfoId\":1,\"name\":\"Unique Title 5c1f\",\"cast\":[\"Christian Bale\"]}";
+
+        for (var mapper : List.of(MovieCodecs.precompiledJsonMapper(), MovieCodecs.jsonMapper())) {
+            int before = StringDictionary.shared().size();
+            var first = mapper.readValue(json, MovieInfo.class);
+            var second = mapper.readValue(json, MovieInfo.class);
+
+            assertSame(first.getCast().get(0), second.getCast().get(0));
+            assertTrue(StringDictionary.shared().size() - before <= 1);
+        }
+    }
+}
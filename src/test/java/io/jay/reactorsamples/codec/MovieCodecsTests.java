@@ -0,0 +1,30 @@
+package io.jay.reactorsamples.codec;
+
+import io.jay.reactorsamples.domain.Movie;
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.domain.Review;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovieCodecsTests {
+
+    private Movie movie = new Movie(
+            new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+            List.of(new Review(1L, 100L, "Awesome Movie", 8.9), new Review(2L, 100L, "Excellent Movie", 9.0)));
+
+    @Test
+    void smile_roundTripsMovieAndIsSmallerThanJson() throws Exception {
+        var smileMapper = MovieCodecs.smileMapper();
+
+        var smile = smileMapper.writeValueAsBytes(movie);
+        var json = MovieCodecs.jsonMapper().writeValueAsBytes(movie);
+
+        assertEquals(movie, smileMapper.readValue(smile, Movie.class));
+        assertTrue(smile.length < json.length);
+    }
+}
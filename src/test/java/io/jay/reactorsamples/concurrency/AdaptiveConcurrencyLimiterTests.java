@@ -0,0 +1,98 @@
+package io.jay.reactorsamples.concurrency;
+
+import io.jay.reactorsamples.exception.AdmissionRejectedException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    @Test
+    void limit_boundsInFlightCalls() {
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 2, Duration.ofSeconds(10), 0.5, 6);
+        var active = new AtomicInteger();
+        var maxActive = new AtomicInteger();
+
+        StepVerifier.withVirtualTime(() -> Flux.range(1, 6)
+                        .flatMap(i -> limiter.limit(Mono.delay(Duration.ofMillis(100))
+                                .doOnSubscribe(s -> maxActive.accumulateAndGet(active.incrementAndGet(), Math::max))
+                                .doOnTerminate(active::decrementAndGet))))
+                .thenAwait(Duration.ofMillis(300))
+                .expectNextCount(6)
+                .verifyComplete();
+
+        assertEquals(2, maxActive.get());
+        assertEquals(0, limiter.inFlight());
+        assertEquals(0, limiter.waiting());
+    }
+
+    @Test
+    void limit_growsWhileFastAndBusy() {
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, Duration.ofMillis(500), 0.5, 20);
+
+        StepVerifier.withVirtualTime(() -> Flux.range(1, 20)
+                        .flatMap(i -> limiter.limit(Mono.delay(Duration.ofMillis(10)))))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNextCount(20)
+                .verifyComplete();
+
+        assertTrue(limiter.currentLimit() > 2);
+    }
+
+    @Test
+    void limit_backsOffOnErrorsAndSlowCalls() {
+        var limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, Duration.ofMillis(100), 0.5);
+
+        StepVerifier.create(limiter.limit(Mono.error(new RuntimeException("review backend down"))))
+                .expectError()
+                .verify();
+        assertEquals(4, limiter.currentLimit());
+
+        StepVerifier.withVirtualTime(() -> limiter.limit(Mono.delay(Duration.ofMillis(200))))
+                .thenAwait(Duration.ofMillis(200))
+                .expectNext(0L)
+                .verifyComplete();
+        assertEquals(2, limiter.currentLimit());
+    }
+
+    @Test
+    void limit_cancelledWaiterDoesNotLeakPermits() {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, Duration.ofSeconds(1), 0.5);
+
+        StepVerifier.create(limiter.limit(Mono.never()))
+                .thenCancel()
+                .verify();
+        StepVerifier.create(limiter.limit(Mono.just("review")))
+                .expectNext("review")
+                .verifyComplete();
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void limit_rejectsWhenWaiterQueueIsFull() {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, Duration.ofSeconds(1), 0.5, 1);
+
+        StepVerifier.create(Flux.merge(
+                        limiter.limit(Mono.never()),
+                        limiter.limit(Mono.never()),
+                        limiter.limit(Mono.just("review"))))
+                .expectError(AdmissionRejectedException.class)
+                .verify();
+        assertEquals(0, limiter.inFlight());
+        assertEquals(0, limiter.waiting());
+    }
+
+    @Test
+    void constructor_rejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(0, 1, 10, Duration.ofSeconds(1), 0.5));
+    }
+}
@@ -0,0 +1,102 @@
+package io.jay.reactorsamples.concurrency;
+
+import io.jay.reactorsamples.exception.AdmissionRejectedException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionControllerTests {
+
+    @Test
+    void admit_batchLaneSaturationDoesNotDelayInteractive() {
+        var controller = new AdmissionController(2, 10, Duration.ofMillis(50), 1, 10, Duration.ofSeconds(10));
+
+        StepVerifier.withVirtualTime(() -> Flux.merge(
+                        controller.admit(Lane.BATCH, Mono.delay(Duration.ofSeconds(1)).thenReturn("batch-1")),
+                        controller.admit(Lane.BATCH, Mono.delay(Duration.ofSeconds(1)).thenReturn("batch-2")),
+                        controller.admit(Lane.INTERACTIVE, Mono.delay(Duration.ofMillis(10)).thenReturn("interactive"))))
+                .thenAwait(Duration.ofMillis(10))
+                .expectNext("interactive")
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext("batch-1")
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext("batch-2")
+                .verifyComplete();
+
+        var batch = controller.stats(Lane.BATCH);
+        assertEquals(2, batch.getAdmitted());
+        assertEquals(Duration.ofSeconds(1), batch.getMaxQueueTime());
+        assertEquals(Duration.ZERO, controller.stats(Lane.INTERACTIVE).getMaxQueueTime());
+    }
+
+    @Test
+    void admit_rejectsWhenQueueIsFull() {
+        var controller = new AdmissionController(1, 0, Duration.ofMillis(50), 1, 0, Duration.ofSeconds(1));
+
+        StepVerifier.withVirtualTime(() -> Flux.merge(
+                        controller.admit(Lane.BATCH, Mono.delay(Duration.ofSeconds(1)).thenReturn("running")),
+                        controller.admit(Lane.BATCH, Mono.just("shed"))))
+                .expectError(AdmissionRejectedException.class)
+                .verify();
+
+        assertEquals(1, controller.stats(Lane.BATCH).getRejected());
+        assertEquals(0, controller.stats(Lane.BATCH).getInFlight());
+    }
+
+    @Test
+    void admit_rejectsAfterQueueTimeTarget() {
+        var controller = new AdmissionController(1, 10, Duration.ofMillis(50), 1, 10, Duration.ofSeconds(1));
+
+        StepVerifier.withVirtualTime(() -> Flux.mergeDelayError(2,
+                        controller.admit(Lane.INTERACTIVE, Mono.delay(Duration.ofMillis(200)).thenReturn("slow")),
+                        controller.admit(Lane.INTERACTIVE, Mono.just("waiting"))))
+                .thenAwait(Duration.ofMillis(200))
+                .expectNext("slow")
+                .expectError(AdmissionRejectedException.class)
+                .verify();
+
+        var interactive = controller.stats(Lane.INTERACTIVE);
+        assertEquals(1, interactive.getAdmitted());
+        assertEquals(1, interactive.getRejected());
+        assertEquals(0, interactive.getQueued());
+    }
+
+    @Test
+    void admit_rejectsQueuedRequestAtQueueTargetWhileInFlightCallsHang() {
+        var controller = new AdmissionController(1, 10, Duration.ofMillis(50), 1, 10, Duration.ofSeconds(1));
+        controller.admit(Lane.INTERACTIVE, Mono.never()).subscribe();
+
+        StepVerifier.withVirtualTime(() -> controller.admit(Lane.INTERACTIVE, Mono.just("queued")))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .expectError(AdmissionRejectedException.class)
+                .verify();
+
+        var interactive = controller.stats(Lane.INTERACTIVE);
+        assertEquals(1, interactive.getRejected());
+        assertEquals(0, interactive.getQueued());
+        assertEquals(1, interactive.getInFlight());
+    }
+
+    @Test
+    void admit_rejectsOnArrivalWhenEstimatedQueueTimeIsOverTarget() {
+        var controller = new AdmissionController(1, 10, Duration.ofMillis(50), 1, 10, Duration.ofSeconds(1));
+
+        StepVerifier.withVirtualTime(() -> controller.admit(Lane.INTERACTIVE, Mono.delay(Duration.ofMillis(200))))
+                .thenAwait(Duration.ofMillis(200))
+                .expectNext(0L)
+                .verifyComplete();
+        StepVerifier.withVirtualTime(() -> Flux.merge(
+                        controller.admit(Lane.INTERACTIVE, Mono.delay(Duration.ofMillis(200)).thenReturn("slow")),
+                        controller.admit(Lane.INTERACTIVE, Mono.just("shed"))))
+                .expectError(AdmissionRejectedException.class)
+                .verify();
+
+        assertEquals(1, controller.stats(Lane.INTERACTIVE).getRejected());
+    }
+}
@@ -0,0 +1,163 @@
+package io.jay.reactorsamples.deadletter;
+
+import io.jay.reactorsamples.domain.Review;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadLetterQueueTests {
+
+    @TempDir
+    Path directory;
+
+    private DeadLetterQueue deadLetterQueue;
+
+    @AfterEach
+    void close() {
+        if (deadLetterQueue != null) {
+            deadLetterQueue.dispose();
+        }
+    }
+
+    @Test
+    void onErrorContinue_capturesFailedElementsForReplay() {
+        deadLetterQueue = new DeadLetterQueue(directory);
+        var reviews = Flux.just(
+                        new Review(1L, 100L, "Awesome Movie", 8.9),
+                        new Review(2L, 100L, "Broken", null),
+                        new Review(3L, 101L, "Excellent Movie", 9.0))
+                .map(review -> {
+                    if (review.getRating() == null) {
+                        throw new IllegalArgumentException("missing rating");
+                    }
+                    return review;
+                })
+                .onErrorContinue(deadLetterQueue.errorConsumer());
+
+        StepVerifier.create(reviews)
+                .expectNextCount(2)
+                .verifyComplete();
+
+        StepVerifier.create(deadLetterQueue.replay())
+                .assertNext(letter -> {
+                    assertEquals(Review.class.getName(), letter.getElementType());
+                    assertEquals(IllegalArgumentException.class.getName(), letter.getErrorType());
+                    assertEquals("missing rating", letter.getErrorMessage());
+                })
+                .verifyComplete();
+        StepVerifier.create(deadLetterQueue.replay(Review.class))
+                .expectNext(new Review(2L, 100L, "Broken", null))
+                .verifyComplete();
+        assertEquals(1, deadLetterQueue.written());
+    }
+
+    @Test
+    void append_rollsSegmentsAndReplaysInOrder() throws IOException {
+        deadLetterQueue = new DeadLetterQueue(directory, 100, 2, Duration.ofSeconds(10), 1);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(deadLetterQueue.offer("review-" + i, new IllegalStateException("failed " + i)));
+        }
+
+        StepVerifier.create(deadLetterQueue.replay(String.class))
+                .expectNext("review-0", "review-1", "review-2", "review-3", "review-4")
+                .verifyComplete();
+        assertEquals(3, segmentCount());
+    }
+
+    @Test
+    void replay_closesTheActiveSegmentSoLaterLettersGoToTheNextOne() throws IOException {
+        deadLetterQueue = new DeadLetterQueue(directory);
+        deadLetterQueue.offer("A", new IllegalStateException("exception"));
+
+        StepVerifier.create(deadLetterQueue.replay(String.class))
+                .expectNext("A")
+                .verifyComplete();
+        deadLetterQueue.offer("B", new IllegalStateException("exception"));
+        StepVerifier.create(deadLetterQueue.replay(String.class))
+                .expectNext("B")
+                .verifyComplete();
+
+        assertEquals(2, segmentCount());
+    }
+
+    @Test
+    void replay_skipsSegmentsAlreadyReplayedAlsoAfterARestart() {
+        deadLetterQueue = new DeadLetterQueue(directory);
+        deadLetterQueue.offer("A", new IllegalStateException("exception"));
+        deadLetterQueue.offer(1L, new IllegalStateException("exception"));
+        StepVerifier.create(deadLetterQueue.replay(String.class))
+                .expectNext("A")
+                .verifyComplete();
+        deadLetterQueue.dispose();
+
+        deadLetterQueue = new DeadLetterQueue(directory);
+        deadLetterQueue.offer("B", new IllegalStateException("exception"));
+
+        StepVerifier.create(deadLetterQueue.replay(String.class))
+                .expectNext("B")
+                .verifyComplete();
+        StepVerifier.create(deadLetterQueue.replay(Long.class))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(deadLetterQueue.replay(String.class))
+                .verifyComplete();
+    }
+
+    @Test
+    void replay_cancelledBeforeCompletingIsReplayedAgain() {
+        deadLetterQueue = new DeadLetterQueue(directory);
+        deadLetterQueue.offer("A", new IllegalStateException("exception"));
+        deadLetterQueue.offer("B", new IllegalStateException("exception"));
+
+        StepVerifier.create(deadLetterQueue.replay(String.class), 1)
+                .expectNext("A")
+                .thenCancel()
+                .verify();
+
+        StepVerifier.create(deadLetterQueue.replay(String.class))
+                .expectNext("A", "B")
+                .verifyComplete();
+    }
+
+    @Test
+    void offer_dropsInsteadOfBlockingWhenFull() {
+        deadLetterQueue = new DeadLetterQueue(directory, 1, 1, Duration.ofSeconds(10), 1024);
+
+        assertTrue(deadLetterQueue.offer("first", new RuntimeException("error")));
+        assertFalse(deadLetterQueue.offer("second", new RuntimeException("error")));
+
+        assertEquals(1, deadLetterQueue.dropped());
+    }
+
+    @Test
+    void replay_picksUpSegmentsFromAPreviousRun() {
+        deadLetterQueue = new DeadLetterQueue(directory);
+        deadLetterQueue.offer("B", new IllegalStateException("exception"));
+        deadLetterQueue.dispose();
+
+        deadLetterQueue = new DeadLetterQueue(directory);
+        deadLetterQueue.offer("E", new IllegalStateException("exception"));
+
+        StepVerifier.create(deadLetterQueue.replay(String.class))
+                .expectNext("B", "E")
+                .verifyComplete();
+    }
+
+    private long segmentCount() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+}
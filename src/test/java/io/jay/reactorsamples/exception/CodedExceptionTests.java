@@ -0,0 +1,70 @@
+package io.jay.reactorsamples.exception;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CodedExceptionTests {
+
+    @AfterEach
+    void restoreStackTraces() {
+        CodedException.setCaptureStackTraces(true);
+    }
+
+    @Test
+    void capturesStackTracesByDefault() {
+        var exception = new MovieException("movie failed", 100L);
+
+        assertTrue(exception.getStackTrace().length > 0);
+        assertEquals(ErrorCode.MOVIE_FAILURE, exception.getErrorCode());
+        assertEquals(100L, exception.getMovieId());
+    }
+
+    @Test
+    void stacklessExceptionsKeepCheckpoints() {
+        CodedException.setCaptureStackTraces(false);
+
+        var failure = Mono.error(new NetworkException("review backend down", 101L))
+                .checkpoint("reviews for movie 101");
+
+        StepVerifier.create(failure)
+                .expectErrorSatisfies(ex -> {
+                    assertEquals(0, ex.getStackTrace().length);
+                    assertEquals(ErrorCode.NETWORK_FAILURE, ((CodedException) ex).getErrorCode());
+                    assertTrue(ex.getSuppressed().length > 0);
+                })
+                .verify();
+    }
+
+    @Test
+    void stacklessFactoriesNeverCaptureStackTraces() {
+        var exceptions = new CodedException[]{
+                MovieException.stackless("movie failed", 100L),
+                ServiceException.stackless("service failed", 100L),
+                MovieInfoException.stackless("movie info failed", 100L),
+                ReviewException.stackless("reviews failed", 100L)};
+
+        for (CodedException exception : exceptions) {
+            assertEquals(0, exception.getStackTrace().length);
+            assertEquals(100L, exception.getMovieId());
+        }
+        assertEquals(ErrorCode.MOVIE_INFO_FAILURE, exceptions[2].getErrorCode());
+        assertEquals(ErrorCode.REVIEW_FAILURE, exceptions[3].getErrorCode());
+    }
+
+    @Test
+    void sharedInstancesAreImmutable() {
+        var shared = ServiceException.shared();
+        shared.addSuppressed(new RuntimeException("ignored"));
+
+        assertSame(shared, ServiceException.shared());
+        assertEquals(0, shared.getStackTrace().length);
+        assertEquals(0, shared.getSuppressed().length);
+        assertEquals(ErrorCode.SERVICE_FAILURE, shared.getErrorCode());
+    }
+}
@@ -0,0 +1,119 @@
+package io.jay.reactorsamples.loadgen;
+
+import io.jay.reactorsamples.codec.MovieCodecs;
+import io.jay.reactorsamples.service.MovieInfoService;
+import io.jay.reactorsamples.service.MovieReactiveService;
+import io.jay.reactorsamples.service.RevenueService;
+import io.jay.reactorsamples.service.ReviewService;
+import io.jay.reactorsamples.util.IdRange;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives MovieReactiveService in-process, or through its WebClient paths against an upstream, and prints
+ * HdrHistogram percentiles per operation. Arguments are described in USAGE.
+ */
+public class LoadGeneratorMain {
+
+    static final String USAGE = String.join(System.lineSeparator(),
+            "usage: LoadGeneratorMain [rate/s] [seconds] [mix] [inprocess|http://host:port] [fromId-toId]",
+            "  rate/s       requests started per second, default 200",
+            "  seconds      run time, default 30",
+            "  mix          operation=weight,..., default getMovieById=80,getAllMovies=15,withRevenue=5 in-process",
+            "               and getMovieById=85,getAllMovies=15 over http",
+            "  target       inprocess runs MovieReactiveService against its built-in catalog. An http://host:port URL",
+            "               must be a movie info / review upstream serving /v1/movie_infos and /v1/reviews (for example",
+            "               StubUpstreamServer), not this service: the WebClient paths of MovieReactiveService still",
+            "               run in-process and only their upstream calls go over http",
+            "  fromId-toId  inclusive range getMovieById and withRevenue pick ids from, default 100-102 in-process and 1-7",
+            "               over http");
+
+    public static void main(String[] args) {
+        if (args.length > 5 || (args.length > 0 && (args[0].equals("-h") || args[0].equals("--help")))) {
+            System.out.println(USAGE);
+            return;
+        }
+        double rate = args.length > 0 ? Double.parseDouble(args[0]) : 200;
+        var duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 30);
+        var target = args.length > 3 ? args[3] : "inprocess";
+        boolean inProcess = "inprocess".equals(target);
+        var mix = args.length > 2 ? args[2]
+                : inProcess ? "getMovieById=80,getAllMovies=15,withRevenue=5" : "getMovieById=85,getAllMovies=15";
+        var ids = parseIdRange(args.length > 4 ? args[4] : inProcess ? "100-102" : "1-7");
+
+        var operations = inProcess ? inProcess(mix, ids) : http(mix, target, ids);
+        var report = new OpenLoopLoadGenerator(new OperationMix(operations), rate, duration)
+                .run()
+                .block();
+
+        System.out.printf("%.0f req/s for %d s against %s%n", rate, duration.toSeconds(), target);
+        System.out.print(report.format());
+    }
+
+    static IdRange parseIdRange(String range) {
+        var bounds = range.split("-");
+        if (bounds.length != 2) {
+            throw new IllegalArgumentException("id range must look like fromId-toId, not " + range);
+        }
+        var ids = new IdRange(Long.parseLong(bounds[0].trim()), Long.parseLong(bounds[1].trim()));
+        if (ids.getToId() < ids.getFromId()) {
+            throw new IllegalArgumentException("empty id range " + range);
+        }
+        return ids;
+    }
+
+    static List<LoadOperation> inProcess(String mix, IdRange ids) {
+        var service = new MovieReactiveService(new MovieInfoService(), new ReviewService(), new RevenueService());
+        var operations = new ArrayList<LoadOperation>();
+        for (String entry : mix.split(",")) {
+            var parts = entry.split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            switch (parts[0].trim()) {
+                case "getMovieById":
+                    operations.add(new LoadOperation("getMovieById", weight, () -> service.getMovieById(randomMovieId(ids))));
+                    break;
+                case "getAllMovies":
+                    operations.add(new LoadOperation("getAllMovies", weight, service::getAllMovies));
+                    break;
+                case "withRevenue":
+                    operations.add(new LoadOperation("withRevenue", weight, () -> service.getMovieByIdWithRevenue(randomMovieId(ids))));
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown in-process operation " + parts[0]);
+            }
+        }
+        return operations;
+    }
+
+    static List<LoadOperation> http(String mix, String baseUrl, IdRange ids) {
+        var webClient = MovieCodecs.binaryWebClientBuilder()
+                .baseUrl(baseUrl)
+                .build();
+        var service = new MovieReactiveService(new MovieInfoService(webClient), new ReviewService(webClient));
+        var operations = new ArrayList<LoadOperation>();
+        for (String entry : mix.split(",")) {
+            var parts = entry.split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            switch (parts[0].trim()) {
+                case "getMovieById":
+                    operations.add(new LoadOperation("getMovieById", weight, () -> service.getMovieByIdUsingWebClient(randomMovieId(ids))));
+                    break;
+                case "getAllMovies":
+                    operations.add(new LoadOperation("getAllMovies", weight, service::getAllMoviesUsingWebClient));
+                    break;
+                case "withRevenue":
+                    throw new IllegalArgumentException("withRevenue has no WebClient path, it can only run in-process");
+                default:
+                    throw new IllegalArgumentException("unknown http operation " + parts[0]);
+            }
+        }
+        return operations;
+    }
+
+    private static long randomMovieId(IdRange ids) {
+        return ThreadLocalRandom.current().nextLong(ids.getFromId(), ids.getToId() + 1);
+    }
+}
@@ -0,0 +1,36 @@
+package io.jay.reactorsamples.loadgen;
+
+import org.reactivestreams.Publisher;
+
+import java.util.function.Supplier;
+
+/**
+ * one kind of request in the mix, weight is relative to the other operations
+ */
+public class LoadOperation {
+
+    private final String name;
+    private final int weight;
+    private final Supplier<? extends Publisher<?>> request;
+
+    public LoadOperation(String name, int weight, Supplier<? extends Publisher<?>> request) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight of " + name + " must be positive");
+        }
+        this.name = name;
+        this.weight = weight;
+        this.request = request;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public Publisher<?> newRequest() {
+        return request.get();
+    }
+}
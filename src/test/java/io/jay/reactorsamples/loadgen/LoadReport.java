@@ -0,0 +1,50 @@
+package io.jay.reactorsamples.loadgen;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * per operation latency histograms (microseconds, measured from the intended start) and error counts
+ */
+public class LoadReport {
+
+    private final Duration elapsed;
+    private final Map<String, Histogram> latencies;
+    private final Map<String, Long> errors;
+
+    public LoadReport(Duration elapsed, Map<String, Histogram> latencies, Map<String, Long> errors) {
+        this.elapsed = elapsed;
+        this.latencies = new LinkedHashMap<>(latencies);
+        this.errors = new LinkedHashMap<>(errors);
+    }
+
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    public Histogram latencies(String operation) {
+        return latencies.get(operation);
+    }
+
+    public long errors(String operation) {
+        return errors.getOrDefault(operation, 0L);
+    }
+
+    public long totalCount() {
+        return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    public String format() {
+        var report = new StringBuilder(String.format("%-20s %8s %8s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "errors", "ops/s", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us"));
+        double seconds = Math.max(elapsed.toNanos(), 1) / 1e9;
+        latencies.forEach((operation, histogram) -> report.append(String.format("%-20s %8d %8d %10.1f %10d %10d %10d %10d %10d%n",
+                operation, histogram.getTotalCount(), errors(operation), histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9), histogram.getMaxValue())));
+        return report.toString();
+    }
+}
@@ -0,0 +1,88 @@
+package io.jay.reactorsamples.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Open-loop load: requests arrive at a constant rate whether or not earlier ones finished, and every request's
+ * latency is measured from the time it was supposed to start. A stalled system therefore shows up in the
+ * percentiles instead of silently lowering the offered load (coordinated omission).
+ */
+public class OpenLoopLoadGenerator {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final OperationMix mix;
+    private final double ratePerSecond;
+    private final Duration duration;
+
+    public OpenLoopLoadGenerator(OperationMix mix, double ratePerSecond, Duration duration) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("rate must be positive");
+        }
+        this.mix = mix;
+        this.ratePerSecond = ratePerSecond;
+        this.duration = duration;
+    }
+
+    public Mono<LoadReport> run() {
+        return Mono.defer(() -> {
+            var clock = clock();
+            var recorders = new LinkedHashMap<String, Recorder>();
+            var errors = new HashMap<String, AtomicLong>();
+            for (LoadOperation operation : mix.operations()) {
+                recorders.put(operation.getName(), new Recorder(MAX_LATENCY_MICROS, 3));
+                errors.put(operation.getName(), new AtomicLong());
+            }
+            long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+            long arrivals = Math.max(1, duration.toNanos() / periodNanos);
+            long start = clock.getAsLong();
+
+            return Flux.interval(Duration.ZERO, Duration.ofNanos(periodNanos))
+                    .onBackpressureBuffer()
+                    .take(arrivals)
+                    .flatMap(arrival -> {
+                        long intendedStart = start + arrival * periodNanos;
+                        var operation = mix.next();
+                        return Flux.from(operation.newRequest())
+                                .then()
+                                .doOnError(ex -> errors.get(operation.getName()).incrementAndGet())
+                                .onErrorResume(ex -> Mono.empty())
+                                .doOnTerminate(() -> recorders.get(operation.getName())
+                                        .recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(clock.getAsLong() - intendedStart))));
+                    }, Integer.MAX_VALUE)
+                    .then(Mono.fromSupplier(() -> {
+                        var latencies = new LinkedHashMap<String, Histogram>();
+                        var errorCounts = new LinkedHashMap<String, Long>();
+                        recorders.forEach((name, recorder) -> {
+                            latencies.put(name, recorder.getIntervalHistogram());
+                            errorCounts.put(name, errors.get(name).get());
+                        });
+                        return new LoadReport(Duration.ofNanos(clock.getAsLong() - start), latencies, errorCounts);
+                    }));
+        });
+    }
+
+    /**
+     * System.nanoTime for real runs (Scheduler.now is only millisecond precise), the virtual clock under StepVerifier.withVirtualTime
+     */
+    private static LongSupplier clock() {
+        if (VirtualTimeScheduler.isFactoryEnabled()) {
+            var scheduler = Schedulers.parallel();
+            return () -> scheduler.now(TimeUnit.NANOSECONDS);
+        }
+        return System::nanoTime;
+    }
+}
@@ -0,0 +1,57 @@
+package io.jay.reactorsamples.loadgen;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenLoopLoadGeneratorTests {
+
+    @Test
+    void pick_followsWeights() {
+        var mix = new OperationMix(List.of(
+                new LoadOperation("getMovieById", 3, Mono::empty),
+                new LoadOperation("getAllMovies", 1, Mono::empty)));
+
+        assertEquals("getMovieById", mix.pick(0).getName());
+        assertEquals("getMovieById", mix.pick(2).getName());
+        assertEquals("getAllMovies", mix.pick(3).getName());
+    }
+
+    @Test
+    void run_keepsArrivalRateAndChargesStallsToLatency() {
+        var mix = new OperationMix(List.of(
+                new LoadOperation("slow", 1, () -> Mono.delay(Duration.ofMillis(500)))));
+        var generator = new OpenLoopLoadGenerator(mix, 10, Duration.ofSeconds(1));
+
+        StepVerifier.withVirtualTime(generator::run)
+                .thenAwait(Duration.ofSeconds(2))
+                .assertNext(report -> {
+                    var latencies = report.latencies("slow");
+                    assertEquals(10, latencies.getTotalCount());
+                    assertTrue(latencies.getValueAtPercentile(50) >= 500_000);
+                    assertEquals(0, report.errors("slow"));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void run_countsErrors() {
+        var mix = new OperationMix(List.of(
+                new LoadOperation("failing", 1, () -> Mono.error(new IllegalStateException("upstream down")))));
+        var generator = new OpenLoopLoadGenerator(mix, 20, Duration.ofMillis(500));
+
+        StepVerifier.withVirtualTime(generator::run)
+                .thenAwait(Duration.ofSeconds(1))
+                .assertNext(report -> {
+                    assertEquals(10, report.errors("failing"));
+                    assertEquals(10, report.totalCount());
+                })
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,43 @@
+package io.jay.reactorsamples.loadgen;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * picks operations at random in proportion to their weights
+ */
+public class OperationMix {
+
+    private final List<LoadOperation> operations;
+    private final int[] cumulativeWeights;
+
+    public OperationMix(List<LoadOperation> operations) {
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("the mix needs at least one operation");
+        }
+        this.operations = List.copyOf(operations);
+        this.cumulativeWeights = new int[operations.size()];
+        int total = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            total += operations.get(i).getWeight();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public List<LoadOperation> operations() {
+        return operations;
+    }
+
+    public LoadOperation next() {
+        return pick(ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]));
+    }
+
+    LoadOperation pick(int ticket) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        throw new IllegalArgumentException("ticket " + ticket + " is out of range");
+    }
+}
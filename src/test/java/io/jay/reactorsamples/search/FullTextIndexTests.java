@@ -0,0 +1,90 @@
+package io.jay.reactorsamples.search;
+
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.domain.Review;
+import io.jay.reactorsamples.service.MovieInfoService;
+import io.jay.reactorsamples.service.ReviewService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FullTextIndexTests {
+
+    private FullTextIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new FullTextIndex();
+        index.indexMovies(new MovieInfoService().retrieveMoviesFlux()).block();
+        index.indexReviews(new ReviewService().retrieveReviewsFlux(100L)).block();
+    }
+
+    @Test
+    void tokenize_normalizesCaseAndAccents() {
+        assertEquals(List.of("amelie", "poulain", "2001"), Tokenizer.tokenize("  Amélie: POULAIN (2001)"));
+    }
+
+    @Test
+    void search_ranksRarerTermsHigher() {
+        StepVerifier.create(index.search("batman knight", 3))
+                .assertNext(hit -> {
+                    assertEquals(SearchHit.Type.MOVIE, hit.getType());
+                    assertEquals("Batman Begins", hit.getText());
+                })
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void search_returnsAtMostLimitHits() {
+        StepVerifier.create(index.search("movie", 1))
+                .assertNext(hit -> {
+                    assertEquals(SearchHit.Type.REVIEW, hit.getType());
+                    assertEquals(100L, hit.getMovieInfoId());
+                    assertTrue(hit.getScore() > 0);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void reindexing_replacesPreviousVersion() {
+        index.indexMovie(new MovieInfo(100L, "Batman Returns", 1992, List.of(), LocalDate.parse("1992-06-19")));
+
+        StepVerifier.create(index.search("begins", 10))
+                .verifyComplete();
+        StepVerifier.create(index.search("returns", 10))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void reindexing_sameDocumentRepeatedly_keepsScores() {
+        var before = scores(index.search("batman knight movie", 10).collectList().block());
+
+        var batmanBegins = new MovieInfo(100L, "Batman Begins", 2005, List.of(), LocalDate.parse("2005-06-15"));
+        for (int i = 0; i < 50; i++) {
+            index.indexMovie(batmanBegins);
+        }
+        var after = scores(index.search("batman knight movie", 10).collectList().block());
+
+        assertEquals(5, index.size());
+        assertEquals(before.keySet(), after.keySet());
+        before.forEach((document, score) -> {
+            assertTrue(score > 0);
+            assertEquals(score, after.get(document), 1e-9);
+        });
+    }
+
+    private static Map<String, Double> scores(List<SearchHit> hits) {
+        return hits.stream().collect(Collectors.toMap(hit -> hit.getType() + ":" + hit.getId(), SearchHit::getScore));
+    }
+}
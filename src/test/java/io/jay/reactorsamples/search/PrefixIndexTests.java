@@ -0,0 +1,41 @@
+package io.jay.reactorsamples.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTests {
+
+    private PrefixIndex index = PrefixIndex.build(List.of(
+            new Completion(100L, "Batman Begins", 8.0),
+            new Completion(101L, "The Dark Knight", 9.0),
+            new Completion(102L, "Dark Knight Rises", 7.5),
+            new Completion(103L, "Batman & Robin", 3.7)), 10);
+
+    @Test
+    void complete_ranksByScore() {
+        assertEquals(List.of("Batman Begins", "Batman & Robin"), names(index.complete("bat", 10)));
+        assertEquals(List.of("The Dark Knight", "Dark Knight Rises"), names(index.complete("Dark K", 10)));
+    }
+
+    @Test
+    void complete_matchesWordStartsAndRespectsLimit() {
+        assertEquals(List.of("The Dark Knight"), names(index.complete("knight", 1)));
+        assertEquals(List.of("Batman & Robin"), names(index.complete("rob", 10)));
+    }
+
+    @Test
+    void complete_unknownPrefixIsEmpty() {
+        assertTrue(index.complete("joker", 10).isEmpty());
+        assertTrue(index.complete("batmen", 10).isEmpty());
+        assertTrue(index.complete("", 10).isEmpty());
+    }
+
+    private List<String> names(List<Completion> completions) {
+        return completions.stream().map(Completion::getName).collect(Collectors.toList());
+    }
+}
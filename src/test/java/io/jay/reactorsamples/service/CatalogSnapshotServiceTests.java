@@ -0,0 +1,77 @@
+package io.jay.reactorsamples.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotServiceTests {
+
+    @TempDir
+    Path directory;
+
+    private MovieReactiveService movieReactiveService = new MovieReactiveService(new MovieInfoService(), new ReviewService());
+
+    @Test
+    void start_buildsFirstSnapshotThenWarmRestartReusesIt() {
+        var path = directory.resolve("catalog.snapshot");
+        var service = new CatalogSnapshotService(movieReactiveService, path);
+        assertFalse(service.isReady());
+
+        StepVerifier.create(service.start())
+                .assertNext(snapshot -> assertEquals(3, snapshot.size()))
+                .verifyComplete();
+        assertTrue(service.isReady());
+        assertEquals(1, service.version());
+
+        var restarted = new CatalogSnapshotService(movieReactiveService, path);
+        StepVerifier.create(restarted.start())
+                .assertNext(snapshot -> assertEquals(1, snapshot.version()))
+                .verifyComplete();
+        StepVerifier.create(restarted.getMovieById(101L))
+                .assertNext(movie -> {
+                    assertEquals("The Dark Knight", movie.getMovieInfo().getName());
+                    assertEquals(2, movie.getReviewSummary().getCount());
+                    assertEquals(8.95, movie.getReviewSummary().getAverage(), 0.0001);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void start_rebuildsWhenTheSnapshotOnDiskIsTruncated() throws IOException {
+        var path = directory.resolve("catalog.snapshot");
+        new CatalogSnapshotService(movieReactiveService, path).start().block();
+        var bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 10));
+
+        var restarted = new CatalogSnapshotService(movieReactiveService, path);
+        StepVerifier.create(restarted.start())
+                .assertNext(snapshot -> assertEquals(3, snapshot.size()))
+                .verifyComplete();
+        StepVerifier.create(restarted.getMovieById(102L))
+                .assertNext(movie -> assertEquals("Dark Knight Rises", movie.getMovieInfo().getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void refresh_bumpsVersion() {
+        var service = new CatalogSnapshotService(movieReactiveService, directory.resolve("catalog.snapshot"));
+
+        service.start().block();
+
+        StepVerifier.create(service.refresh())
+                .assertNext(snapshot -> assertEquals(2, snapshot.version()))
+                .verifyComplete();
+        StepVerifier.create(service.getAllMovies().count())
+                .expectNext(3L)
+                .verifyComplete();
+    }
+}
@@ -1,13 +1,16 @@
 package io.jay.reactorsamples.service;
 
+import io.jay.reactorsamples.deadletter.DeadLetterQueue;
 import io.jay.reactorsamples.exception.ReactorException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Hooks;
 import reactor.test.StepVerifier;
 import reactor.test.scheduler.VirtualTimeScheduler;
 import reactor.tools.agent.ReactorDebugAgent;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.List;
 
@@ -274,6 +277,20 @@ public class FluxAndMonoGeneratorServiceTests {
                 .verifyComplete();
     }
 
+    @Test
+    void explore_onErrorContinue_deadLetter(@TempDir Path directory) {
+        var deadLetterQueue = new DeadLetterQueue(directory);
+
+        StepVerifier.create(generator.explore_onErrorContinue_deadLetter(deadLetterQueue))
+                .expectNext("A", "C", "D")
+                .verifyComplete();
+
+        StepVerifier.create(deadLetterQueue.replay(String.class))
+                .expectNext("B")
+                .verifyComplete();
+        deadLetterQueue.dispose();
+    }
+
     @Test
     void explore_onErrorMap() {
         StepVerifier.create(generator.explore_onErrorMap())
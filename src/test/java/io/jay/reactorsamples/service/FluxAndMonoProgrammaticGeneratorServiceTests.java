@@ -1,9 +1,18 @@
 package io.jay.reactorsamples.service;
 
+import io.jay.reactorsamples.util.FutureFluxAdapter;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 public class FluxAndMonoProgrammaticGeneratorServiceTests {
 
     private FluxAndMonoProgrammaticGeneratorService generator = new FluxAndMonoProgrammaticGeneratorService();
@@ -26,6 +35,53 @@ public class FluxAndMonoProgrammaticGeneratorServiceTests {
                 .verifyComplete();
     }
 
+    @Test
+    void explore_create_onRequest() {
+        var flux = generator.explore_create_onRequest(2).log();
+        StepVerifier.create(flux, 1)
+                .expectNext("alex")
+                .thenRequest(5)
+                .expectNext("ben", "chloe")
+                .verifyComplete();
+    }
+
+    @Test
+    void fromFutures_onlyAsksForOutstandingDemand() {
+        var requestedCounts = new CopyOnWriteArrayList<Integer>();
+        var flux = FutureFluxAdapter.<Integer>fromFutures(count -> {
+            requestedCounts.add(count);
+            return CompletableFuture.completedFuture(List.of(1, 2, 3, 4, 5).subList(0, count));
+        }, 3);
+
+        StepVerifier.create(flux, 2)
+                .expectNext(1, 2)
+                .thenRequest(4)
+                .expectNext(1, 2, 3, 1)
+                .thenCancel()
+                .verify();
+
+        assertEquals(List.of(2, 3, 1), requestedCounts);
+    }
+
+    @Test
+    void fromFutures_cancelPropagatesToInFlightFuture() {
+        var inFlight = new CompletableFuture<List<String>>();
+        var requested = new AtomicInteger();
+        var flux = FutureFluxAdapter.fromFutures(count -> {
+            requested.addAndGet(count);
+            return inFlight;
+        }, 10);
+
+        StepVerifier.create(flux)
+                .thenAwait()
+                .thenCancel()
+                .verify();
+
+        assertEquals(10, requested.get());
+
+        assertTrue(inFlight.isCancelled());
+    }
+
     @Test
     void explore_create_mono() {
         var mono = generator.explore_create_mono().log();
@@ -1,17 +1,48 @@
 package io.jay.reactorsamples.service;
 
+import io.jay.reactorsamples.codec.MovieCodecs;
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.stub.StubUpstreamServer;
+import io.jay.reactorsamples.util.PooledWebClients;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class MovieInfoServiceTests {
 
-    WebClient webClient = WebClient.builder()
-            .baseUrl("http://localhost:8080/movies")
+    static StubUpstreamServer upstream = new StubUpstreamServer(7).start();
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.dispose();
+    }
+
+    WebClient webClient = MovieCodecs.binaryWebClientBuilder()
+            .baseUrl(upstream.baseUrl())
             .build();
 
     MovieInfoService movieInfoService = new MovieInfoService(webClient);
@@ -39,4 +70,162 @@ public class MovieInfoServiceTests {
                 })
                 .verifyComplete();
     }
+
+    /**
+     * answers /v1/movie_infos?fromId=&toId= with one MovieInfo per id, later ranges answer faster
+     */
+    private WebClient rangeServingWebClient(AtomicInteger inFlight, AtomicInteger maxInFlight) {
+        return WebClient.builder()
+                .exchangeFunction(request -> {
+                    var query = UriComponentsBuilder.fromUri(request.url()).build().getQueryParams();
+                    long fromId = Long.parseLong(query.getFirst("fromId"));
+                    long toId = Long.parseLong(query.getFirst("toId"));
+                    var body = LongStream.rangeClosed(fromId, toId)
+                            .mapToObj(id -> "{\"movieInfoId\":" + id + ",\"name\":\"movie " + id + "\"}")
+                            .collect(Collectors.joining(",", "[", "]"));
+                    return Mono.delay(Duration.ofMillis(200 - 5 * fromId))
+                            .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                            .doOnNext(tick -> inFlight.decrementAndGet())
+                            .thenReturn(ClientResponse.create(HttpStatus.OK)
+                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .body(body)
+                                    .build());
+                })
+                .build();
+    }
+
+    @Test
+    void retrieveAllMovieInfoPartitionedUsingWebClient_ordered() {
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        var service = new MovieInfoService(rangeServingWebClient(inFlight, maxInFlight));
+
+        var movieInfoFlux = service.retrieveAllMovieInfoPartitionedUsingWebClient(1, 20, 5, 2, true)
+                .map(MovieInfo::getMovieInfoId);
+
+        StepVerifier.create(movieInfoFlux)
+                .expectNextSequence(LongStream.rangeClosed(1, 20).boxed().collect(Collectors.toList()))
+                .verifyComplete();
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    void retrieveAllMovieInfoPartitionedUsingWebClient_pooledAgainstStub() {
+        var pooledWebClient = PooledWebClients.builder("movie-info-ranges", 3)
+                .baseUrl(upstream.baseUrl())
+                .build();
+        var service = new MovieInfoService(pooledWebClient);
+
+        var movieInfoFlux = service.retrieveAllMovieInfoPartitionedUsingWebClient(1, 7, 3, 3, true)
+                .map(MovieInfo::getMovieInfoId);
+
+        StepVerifier.create(movieInfoFlux)
+                .expectNextSequence(LongStream.rangeClosed(1, 7).boxed().collect(Collectors.toList()))
+                .verifyComplete();
+        PooledWebClients.dispose("movie-info-ranges");
+    }
+
+    @Test
+    void retrieveAllMovieInfoPartitionedUsingWebClient_unordered() {
+        var service = new MovieInfoService(rangeServingWebClient(new AtomicInteger(), new AtomicInteger()));
+
+        var movieInfoFlux = service.retrieveAllMovieInfoPartitionedUsingWebClient(1, 20, 4, 4, false)
+                .map(MovieInfo::getMovieInfoId);
+
+        StepVerifier.create(movieInfoFlux.collectList())
+                .assertNext(ids -> {
+                    assertEquals(20, ids.size());
+                    assertEquals(16L, ids.get(0));
+                    assertEquals(LongStream.rangeClosed(1, 20).boxed().collect(Collectors.toSet()), Set.copyOf(ids));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void retrieveMoviesPaginated() {
+        var movieInfoFlux = movieInfoService.retrieveMoviesPaginated(2, 1);
+
+        StepVerifier.create(movieInfoFlux)
+                .assertNext(movieInfo -> assertEquals("Batman Begins", movieInfo.getName()))
+                .assertNext(movieInfo -> assertEquals("The Dark Knight", movieInfo.getName()))
+                .assertNext(movieInfo -> assertEquals("Dark Knight Rises", movieInfo.getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void retrieveMoviesPaginated_followsKeysetCursor() {
+        var cursors = new CopyOnWriteArrayList<Long>();
+        MovieInfoPageFetcher fetcher = (afterId, limit) -> {
+            cursors.add(afterId);
+            long from = afterId == null ? 1 : afterId + 1;
+            return LongStream.rangeClosed(from, Math.min(from + limit - 1, 10))
+                    .mapToObj(id -> new MovieInfo(id, "movie " + id, 2000, List.of(), LocalDate.of(2000, 1, 1)))
+                    .collect(Collectors.toList());
+        };
+
+        var movieInfoFlux = movieInfoService.retrieveMoviesPaginated(fetcher, 3, 2);
+
+        StepVerifier.create(movieInfoFlux)
+                .expectNextCount(10)
+                .verifyComplete();
+        assertEquals(Arrays.asList(null, 3L, 6L, 9L), cursors);
+    }
+
+    @Test
+    void retrieveMoviesByYear() {
+        StepVerifier.create(movieInfoService.retrieveMoviesByYear(2008).map(MovieInfo::getName))
+                .expectNext("The Dark Knight", "Dark Knight Rises")
+                .verifyComplete();
+    }
+
+    @Test
+    void retrieveMoviesReleasedBetween() {
+        var movieInfoFlux = movieInfoService.retrieveMoviesReleasedBetween(LocalDate.of(2008, 1, 1), LocalDate.of(2012, 7, 20));
+
+        StepVerifier.create(movieInfoFlux.map(MovieInfo::getName))
+                .expectNext("The Dark Knight", "Dark Knight Rises")
+                .verifyComplete();
+    }
+
+    @Test
+    void retrieveMoviesByYear_concurrentFirstQueriesShareOneIndexBuild() {
+        var service = spy(new MovieInfoService());
+        doReturn(Flux.fromIterable(new MovieInfoService().movieList()).delayElements(Duration.ofMillis(10)))
+                .when(service).retrieveMoviesFlux();
+
+        StepVerifier.create(Flux.merge(service.retrieveMoviesByYear(2008), service.retrieveMoviesByYear(2005)))
+                .expectNextCount(3)
+                .verifyComplete();
+        verify(service, times(1)).retrieveMoviesFlux();
+    }
+
+    @Test
+    void refreshCatalogIndexEvery_picksUpCatalogChanges() {
+        var service = spy(new MovieInfoService());
+        var remake = new MovieInfo(103L, "Batman Begins", 2025, List.of("Robert Pattinson"), LocalDate.parse("2025-03-04"));
+        doReturn(Flux.empty(), Flux.just(remake))
+                .when(service).retrieveMoviesFlux();
+        StepVerifier.create(service.retrieveMoviesByYear(2025))
+                .verifyComplete();
+
+        var refreshes = service.refreshCatalogIndexEvery(Duration.ofMillis(20));
+        try {
+            StepVerifier.create(Mono.delay(Duration.ofMillis(20)).then(service.retrieveMoviesByYear(2025).next())
+                            .repeatWhenEmpty(empty -> empty.delayElements(Duration.ofMillis(20)).take(50)))
+                    .expectNext(remake)
+                    .verifyComplete();
+        } finally {
+            refreshes.dispose();
+        }
+    }
+
+    @Test
+    void retrieveMoviesByCast() {
+        StepVerifier.create(movieInfoService.retrieveMoviesByCast("Christian Bale"))
+                .expectNextCount(3)
+                .verifyComplete();
+        StepVerifier.create(movieInfoService.retrieveMoviesByCast("Tom Hardy").map(MovieInfo::getName))
+                .expectNext("Dark Knight Rises")
+                .verifyComplete();
+    }
 }
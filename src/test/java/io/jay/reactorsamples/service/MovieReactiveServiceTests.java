@@ -1,6 +1,9 @@
 package io.jay.reactorsamples.service;
 
+import io.jay.reactorsamples.concurrency.AdaptiveConcurrencyLimiter;
 import io.jay.reactorsamples.domain.Movie;
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.exception.DeadlineExceededException;
 import io.jay.reactorsamples.exception.MovieException;
 import io.jay.reactorsamples.exception.NetworkException;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +12,11 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.*;
@@ -49,6 +57,39 @@ class MovieReactiveServiceTests {
                 .verifyComplete();
     }
 
+    @Test
+    void getAllMovies_reviewFanOutGoesThroughLimiter() {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 4, Duration.ofSeconds(1), 0.5);
+        var service = new MovieReactiveService(movieInfoService, reviewService, revenueService, limiter);
+
+        StepVerifier.create(service.getAllMovies())
+                .expectNextCount(3)
+                .verifyComplete();
+        assertEquals(0, limiter.inFlight());
+        assertEquals(3, service.reviewConcurrencyLimit());
+    }
+
+    @Test
+    void getAllMovies_reviewFanOutTakesAtMostMaxLimitMoviesFromUpstream() {
+        var mockMovieInfoService = mock(MovieInfoService.class);
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 4, Duration.ofSeconds(1), 0.5);
+        var service = new MovieReactiveService(mockMovieInfoService, reviewService, revenueService, limiter);
+        var requested = new AtomicLong();
+        when(mockMovieInfoService.retrieveMoviesFlux())
+                .thenReturn(Flux.range(1, 20)
+                        .map(id -> new MovieInfo((long) id, "Movie " + id, 2000, List.of(), LocalDate.of(2000, 1, 1)))
+                        .doOnRequest(requested::addAndGet));
+
+        StepVerifier.create(service.getAllMovies(), 1)
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+
+        assertEquals(limiter.maxLimit(), requested.get());
+        assertEquals(0, limiter.inFlight());
+        assertEquals(0, limiter.waiting());
+    }
+
     @Test
     void getAllMovies_throwsMovieException() {
         MovieInfoService mockMovieInfoService = mock(MovieInfoService.class);
@@ -66,10 +107,39 @@ class MovieReactiveServiceTests {
 
 
         StepVerifier.create(moviesFlux)
-                .expectError(MovieException.class)
+                .expectErrorSatisfies(ex -> {
+                    assertEquals(MovieException.class, ex.getClass());
+                    assertEquals(100L, ((MovieException) ex).getMovieId());
+                })
                 .verify();
     }
 
+    @Test
+    void getAllMoviesWithReviewSummary() {
+        Flux<Movie> moviesFlux = movieReactiveService.getAllMoviesWithReviewSummary();
+
+        StepVerifier.create(moviesFlux)
+                .assertNext(movie -> {
+                    assertEquals("Batman Begins", movie.getMovieInfo().getName());
+                    assertEquals(2, movie.getReviewSummary().getCount());
+                    assertEquals(8.95, movie.getReviewSummary().getAverage(), 0.0001);
+                })
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void getMovieByIdWithReviewSummary() {
+        Mono<Movie> movieMono = movieReactiveService.getMovieByIdWithReviewSummary(100L);
+
+        StepVerifier.create(movieMono)
+                .assertNext(movie -> {
+                    assertEquals(100L, movie.getReviewSummary().getMovieInfoId());
+                    assertEquals(9.0, movie.getReviewSummary().getMax());
+                })
+                .verifyComplete();
+    }
+
     @Test
     void getMovieById() {
         Mono<Movie> movieMono = movieReactiveService.getMovieById(100L).log();
@@ -97,6 +167,24 @@ class MovieReactiveServiceTests {
                 .verifyComplete();
     }
 
+    @Test
+    void getMovieByIdWithRevenue_failsWhenBudgetRunsOut() {
+        Mono<Movie> movieMono = movieReactiveService.getMovieByIdWithRevenue(100L, Duration.ofMillis(100));
+
+        StepVerifier.create(movieMono)
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofMillis(900));
+    }
+
+    @Test
+    void getMovieByIdWithRevenue_completesWithinBudget() {
+        Mono<Movie> movieMono = movieReactiveService.getMovieByIdWithRevenue(100L, Duration.ofSeconds(5));
+
+        StepVerifier.create(movieMono)
+                .assertNext(movie -> assertNotNull(movie.getRevenue()))
+                .verifyComplete();
+    }
+
     @Test
     void getAllMoviesRetry() {
         MovieInfoService mockMovieInfoService = mock(MovieInfoService.class);
@@ -139,7 +227,11 @@ class MovieReactiveServiceTests {
 
 
         StepVerifier.create(movieFlux)
-                .expectErrorMessage("error")
+                .expectErrorSatisfies(ex -> {
+                    assertEquals("error", ex.getMessage());
+                    assertEquals(100L, ((MovieException) ex).getMovieId());
+                    assertEquals(0, ex.getStackTrace().length);
+                })
                 .verify();
         verify(mockReviewService, times(4)).retrieveReviewsFlux(isA(Long.class));
     }
@@ -190,4 +282,46 @@ class MovieReactiveServiceTests {
                 .verify();
         verify(mockReviewService, times(6)).retrieveReviewsFlux(isA(Long.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllMoviesRepeatIncremental_emitsOnlyChanges() {
+        MovieInfoService mockMovieInfoService = mock(MovieInfoService.class);
+        ReviewService mockReviewService = mock(ReviewService.class);
+        MovieReactiveService service = new MovieReactiveService(mockMovieInfoService, mockReviewService);
+
+        var batmanBegins = new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+        var darkKnight = new MovieInfo(101L, "The Dark Knight", 2008, List.of("Christian Bale", "HeathLedger"), LocalDate.parse("2008-07-18"));
+        var darkKnightRises = new MovieInfo(102L, "Dark Knight Rises", 2008, List.of("Christian Bale", "Tom Hardy"), LocalDate.parse("2012-07-20"));
+        var darkKnightRisesFixed = new MovieInfo(102L, "Dark Knight Rises", 2012, List.of("Christian Bale", "Tom Hardy"), LocalDate.parse("2012-07-20"));
+
+        when(mockMovieInfoService.retrieveMoviesFlux())
+                .thenReturn(Flux.just(batmanBegins, darkKnight, darkKnightRises))
+                .thenReturn(Flux.just(batmanBegins, darkKnight, darkKnightRises))
+                .thenReturn(Flux.just(batmanBegins, darkKnightRisesFixed));
+        when(mockReviewService.retrieveReviewsVersion(anyLong()))
+                .thenReturn(Mono.just(0L));
+        when(mockReviewService.retrieveReviewsVersion(100L))
+                .thenReturn(Mono.just(0L), Mono.just(0L), Mono.just(1L));
+        when(mockReviewService.retrieveReviewsFlux(anyLong()))
+                .thenCallRealMethod();
+
+        StepVerifier.create(service.getAllMoviesRepeatIncremental(2).map(change -> change.getType() + " " + change.getMovieInfoId()))
+                .expectNext("ADDED 100", "ADDED 101", "ADDED 102")
+                .expectNext("UPDATED 100", "UPDATED 102", "REMOVED 101")
+                .verifyComplete();
+        verify(mockReviewService, times(5)).retrieveReviewsFlux(isA(Long.class));
+    }
+
+    @Test
+    void getAllMoviesRepeatIncremental_tracksEachSubscriptionSeparately() {
+        var changes = movieReactiveService.getAllMoviesRepeatIncremental(0)
+                .map(change -> change.getType() + " " + change.getMovieInfoId());
+
+        StepVerifier.create(changes)
+                .expectNext("ADDED 100", "ADDED 101", "ADDED 102")
+                .verifyComplete();
+        StepVerifier.create(changes)
+                .expectNext("ADDED 100", "ADDED 101", "ADDED 102")
+                .verifyComplete();
+    }
+}
@@ -1,12 +1,23 @@
 package io.jay.reactorsamples.service;
 
+import io.jay.reactorsamples.codec.MovieCodecs;
+import io.jay.reactorsamples.stub.StubUpstreamServer;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.test.StepVerifier;
 
 public class MovieReactiveServiceWebClientTests {
-    private WebClient webClient = WebClient.builder()
-            .baseUrl("http://localhost:8080/movies")
+
+    static StubUpstreamServer upstream = new StubUpstreamServer(7).start();
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.dispose();
+    }
+
+    private WebClient webClient = MovieCodecs.binaryWebClientBuilder()
+            .baseUrl(upstream.baseUrl())
             .build();
     private MovieInfoService movieInfoService = new MovieInfoService(webClient);
     private ReviewService reviewService = new ReviewService(webClient);
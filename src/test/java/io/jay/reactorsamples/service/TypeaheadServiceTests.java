@@ -0,0 +1,43 @@
+package io.jay.reactorsamples.service;
+
+import io.jay.reactorsamples.search.Completion;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TypeaheadServiceTests {
+
+    private TypeaheadService typeaheadService = new TypeaheadService(new MovieInfoService(), new ReviewService(),
+            Duration.ofMillis(200), 5);
+
+    @Test
+    void typeahead_onlyLooksUpAfterTypingPauses() {
+        StepVerifier.withVirtualTime(() -> typeaheadService.typeahead(
+                        Flux.just("d", "da", "dar")
+                                .delayElements(Duration.ofMillis(50))
+                                .concatWith(Flux.never())))
+                .expectSubscription()
+                .thenAwait(Duration.ofSeconds(1))
+                .assertNext(completions -> assertEquals(List.of("Dark Knight Rises", "The Dark Knight"), names(completions)))
+                .expectNoEvent(Duration.ofSeconds(1))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void complete() {
+        StepVerifier.create(typeaheadService.complete("batman", 5))
+                .assertNext(completions -> assertEquals(List.of("Batman Begins"), names(completions)))
+                .verifyComplete();
+    }
+
+    private List<String> names(List<Completion> completions) {
+        return completions.stream().map(Completion::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,34 @@
+package io.jay.reactorsamples.stub;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * how long the stub waits before answering one request
+ */
+@FunctionalInterface
+public interface LatencyProfile {
+
+    Duration next();
+
+    static LatencyProfile none() {
+        return () -> Duration.ZERO;
+    }
+
+    static LatencyProfile fixed(Duration latency) {
+        return () -> latency;
+    }
+
+    static LatencyProfile uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long maxNanos = max.toNanos();
+        return () -> Duration.ofNanos(minNanos + ThreadLocalRandom.current().nextLong(maxNanos - minNanos + 1));
+    }
+
+    /**
+     * base latency, and tail latency for roughly tailProbability of the requests
+     */
+    static LatencyProfile withTail(Duration base, Duration tail, double tailProbability) {
+        return () -> ThreadLocalRandom.current().nextDouble() < tailProbability ? tail : base;
+    }
+}
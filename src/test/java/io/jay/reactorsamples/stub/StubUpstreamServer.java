@@ -0,0 +1,262 @@
+package io.jay.reactorsamples.stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.domain.Review;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.reactivestreams.Publisher;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * In-process Reactor Netty stand-in for the upstream movie service, serving under baseUrl():
+ * /v1/movie_infos (optionally ?limit=&afterId= or ?fromId=&toId=), /v1/movie_infos/{id} and /v1/reviews?movieInfoId=.
+ * The catalog is generated with ids 1..catalogSize, id 1 being Batman Begins. List responses carry an ETag and
+ * answer a matching If-None-Match with 304.
+ * Each endpoint has its own latency profile, error rate (answered with 503) and slow-streaming delay, which
+ * sends a JSON array one element at a time. All of them can be changed while the server runs.
+ */
+public class StubUpstreamServer implements Disposable {
+
+    public enum Endpoint {
+        MOVIE_INFOS, MOVIE_INFO, REVIEWS
+    }
+
+    private static final String BASE_PATH = "/movies";
+
+    private final List<MovieInfo> catalog;
+    private final int reviewsPerMovie;
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final Map<Endpoint, LatencyProfile> latencies = new ConcurrentHashMap<>();
+    private final Map<Endpoint, Double> errorRates = new ConcurrentHashMap<>();
+    private final Map<Endpoint, Duration> streamingDelays = new ConcurrentHashMap<>();
+    private final Map<Endpoint, AtomicLong> requests = new ConcurrentHashMap<>();
+    private volatile DisposableServer server;
+
+    public StubUpstreamServer(int catalogSize) {
+        this(catalogSize, 1);
+    }
+
+    public StubUpstreamServer(int catalogSize, int reviewsPerMovie) {
+        this.catalog = generateCatalog(catalogSize);
+        this.reviewsPerMovie = reviewsPerMovie;
+        for (Endpoint endpoint : Endpoint.values()) {
+            requests.put(endpoint, new AtomicLong());
+        }
+    }
+
+    public StubUpstreamServer start() {
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .get(BASE_PATH + "/v1/movie_infos/{id}", this::movieInfo)
+                        .get(BASE_PATH + "/v1/movie_infos", this::movieInfos)
+                        .get(BASE_PATH + "/v1/reviews", this::reviews))
+                .bindNow();
+        return this;
+    }
+
+    public String baseUrl() {
+        if (server == null) {
+            throw new IllegalStateException("stub server is not started");
+        }
+        return "http://localhost:" + server.port() + BASE_PATH;
+    }
+
+    public StubUpstreamServer latency(Endpoint endpoint, LatencyProfile profile) {
+        latencies.put(endpoint, profile);
+        return this;
+    }
+
+    public StubUpstreamServer errorRate(Endpoint endpoint, double errorRate) {
+        errorRates.put(endpoint, errorRate);
+        return this;
+    }
+
+    public StubUpstreamServer slowStreaming(Endpoint endpoint, Duration perElementDelay) {
+        streamingDelays.put(endpoint, perElementDelay);
+        return this;
+    }
+
+    public StubUpstreamServer reset() {
+        latencies.clear();
+        errorRates.clear();
+        streamingDelays.clear();
+        requests.values().forEach(count -> count.set(0));
+        return this;
+    }
+
+    public long requests(Endpoint endpoint) {
+        return requests.get(endpoint).get();
+    }
+
+    public List<MovieInfo> catalog() {
+        return catalog;
+    }
+
+    @Override
+    public void dispose() {
+        var running = server;
+        if (running != null) {
+            running.disposeNow();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return server == null || server.isDisposed();
+    }
+
+    private Publisher<Void> movieInfos(HttpServerRequest request, HttpServerResponse response) {
+        var query = new QueryStringDecoder(request.uri()).parameters();
+        LongPredicate selected = id -> true;
+        long limit = Long.MAX_VALUE;
+        if (query.containsKey("fromId") || query.containsKey("toId")) {
+            long fromId = longParam(query, "fromId", 1);
+            long toId = longParam(query, "toId", Long.MAX_VALUE);
+            selected = id -> id >= fromId && id <= toId;
+        }
+        if (query.containsKey("afterId")) {
+            long afterId = longParam(query, "afterId", 0);
+            selected = selected.and(id -> id > afterId);
+        }
+        if (query.containsKey("limit")) {
+            limit = longParam(query, "limit", Long.MAX_VALUE);
+        }
+        var filter = selected;
+        var movieInfos = catalog.stream()
+                .filter(movieInfo -> filter.test(movieInfo.getMovieInfoId()))
+                .limit(limit)
+                .collect(Collectors.toList());
+        return respondWithArray(Endpoint.MOVIE_INFOS, request, response, movieInfos);
+    }
+
+    private Publisher<Void> movieInfo(HttpServerRequest request, HttpServerResponse response) {
+        long id;
+        try {
+            id = Long.parseLong(request.param("id"));
+        } catch (NumberFormatException ex) {
+            return respond(Endpoint.MOVIE_INFO, response, () -> response.status(HttpResponseStatus.BAD_REQUEST).send());
+        }
+        if (id < 1 || id > catalog.size()) {
+            return respond(Endpoint.MOVIE_INFO, response, () -> response.status(HttpResponseStatus.NOT_FOUND).send());
+        }
+        var body = toJson(catalog.get((int) id - 1));
+        return respond(Endpoint.MOVIE_INFO, response, () -> response
+                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .sendString(Mono.just(body)));
+    }
+
+    private Publisher<Void> reviews(HttpServerRequest request, HttpServerResponse response) {
+        var query = new QueryStringDecoder(request.uri()).parameters();
+        long movieInfoId = longParam(query, "movieInfoId", 0);
+        var reviews = movieInfoId < 1 || movieInfoId > catalog.size()
+                ? List.<Review>of()
+                : LongStream.range(0, reviewsPerMovie)
+                .mapToObj(index -> new Review((movieInfoId - 1) * reviewsPerMovie + index + 1, movieInfoId,
+                        "Review " + (index + 1) + " of " + catalog.get((int) movieInfoId - 1).getName(),
+                        5.0 + (movieInfoId + index) % 5))
+                .collect(Collectors.toList());
+        return respondWithArray(Endpoint.REVIEWS, request, response, reviews);
+    }
+
+    private Publisher<Void> respondWithArray(Endpoint endpoint, HttpServerRequest request, HttpServerResponse response,
+                                             List<?> elements) {
+        var json = elements.stream()
+                .map(this::toJson)
+                .collect(Collectors.toList());
+        var etag = etag(json);
+        if (etag.equals(request.requestHeaders().get(HttpHeaderNames.IF_NONE_MATCH))) {
+            return respond(endpoint, response, () -> response.status(HttpResponseStatus.NOT_MODIFIED)
+                    .header(HttpHeaderNames.ETAG, etag)
+                    .send());
+        }
+        var delay = streamingDelays.get(endpoint);
+        Flux<String> body = delay == null
+                ? Mono.just(String.join(",", json)).flux()
+                : Flux.fromIterable(json).index((index, element) -> index == 0 ? element : "," + element).delayElements(delay);
+        return respond(endpoint, response, () -> response
+                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .header(HttpHeaderNames.ETAG, etag)
+                .sendString(Flux.concat(Mono.just("["), body, Mono.just("]"))));
+    }
+
+    /**
+     * counts the request, waits out the endpoint latency, then answers 503 or lets the handler answer
+     */
+    private Mono<Void> respond(Endpoint endpoint, HttpServerResponse response, Supplier<Publisher<Void>> handler) {
+        requests.get(endpoint).incrementAndGet();
+        var latency = latencies.getOrDefault(endpoint, LatencyProfile.none()).next();
+        double errorRate = errorRates.getOrDefault(endpoint, 0.0);
+        var delay = latency.isZero() ? Mono.<Long>empty() : Mono.delay(latency);
+        return delay.then(Mono.defer(() -> ThreadLocalRandom.current().nextDouble() < errorRate
+                ? Mono.from(response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send())
+                : Mono.from(handler.get())));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String etag(List<String> json) {
+        long hash = 0xcbf29ce484222325L;
+        for (String element : json) {
+            for (byte b : element.getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+            }
+        }
+        return "\"" + Long.toHexString(hash) + "\"";
+    }
+
+    private static long longParam(Map<String, List<String>> query, String name, long defaultValue) {
+        var values = query.get(name);
+        return values == null || values.isEmpty() ? defaultValue : Long.parseLong(values.get(0));
+    }
+
+    private static List<MovieInfo> generateCatalog(int size) {
+        var catalog = new ArrayList<MovieInfo>(size);
+        var seeds = List.of(
+                new MovieInfo(1L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+                new MovieInfo(2L, "The Dark Knight", 2008, List.of("Christian Bale", "HeathLedger"), LocalDate.parse("2008-07-18")),
+                new MovieInfo(3L, "Dark Knight Rises", 2008, List.of("Christian Bale", "Tom Hardy"), LocalDate.parse("2012-07-20")));
+        Function<Long, MovieInfo> generated = id -> {
+            int year = 1980 + (int) (id % 45);
+            return new MovieInfo(id, "Movie " + id, year,
+                    List.of("Actor " + id % 97, "Actor " + (id * 7) % 97),
+                    LocalDate.of(year, 1, 1).plusDays(id % 365));
+        };
+        for (long id = 1; id <= size; id++) {
+            catalog.add(id <= seeds.size() ? seeds.get((int) id - 1) : generated.apply(id));
+        }
+        return List.copyOf(catalog);
+    }
+}
@@ -0,0 +1,109 @@
+package io.jay.reactorsamples.stub;
+
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.service.MovieInfoService;
+import io.jay.reactorsamples.service.ReviewService;
+import io.jay.reactorsamples.stub.StubUpstreamServer.Endpoint;
+import io.jay.reactorsamples.util.ConditionalGetCache;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StubUpstreamServerTests {
+
+    static StubUpstreamServer upstream = new StubUpstreamServer(500, 5).start();
+
+    private final WebClient webClient = WebClient.builder()
+            .baseUrl(upstream.baseUrl())
+            .build();
+
+    @AfterEach
+    void resetUpstream() {
+        upstream.reset();
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.dispose();
+    }
+
+    @Test
+    void servesGeneratedCatalogByRangeAndPage() {
+        var movieInfoService = new MovieInfoService(webClient);
+
+        StepVerifier.create(movieInfoService.retrieveAllMovieInfoPartitionedUsingWebClient(1, 500, 10, 4, true)
+                        .map(MovieInfo::getMovieInfoId))
+                .expectNextSequence(LongStream.rangeClosed(1, 500).boxed().collect(Collectors.toList()))
+                .verifyComplete();
+        StepVerifier.create(movieInfoService.retrieveAllMovieInfoPaginatedUsingWebClient(100, 2))
+                .expectNextCount(500)
+                .verifyComplete();
+        StepVerifier.create(movieInfoService.retrieveMovieInfoUsingWebClient(1L).map(MovieInfo::getName))
+                .expectNext("Batman Begins")
+                .verifyComplete();
+    }
+
+    @Test
+    void answersMatchingIfNoneMatchWithNotModified() {
+        var cache = new ConditionalGetCache();
+        var reviewService = new ReviewService(webClient, cache);
+
+        StepVerifier.create(reviewService.retrieveReviewsUsingWebClient(42L))
+                .expectNextCount(5)
+                .verifyComplete();
+        StepVerifier.create(reviewService.retrieveReviewsUsingWebClient(42L))
+                .expectNextCount(5)
+                .verifyComplete();
+
+        assertEquals(1, cache.hits());
+        assertEquals(2, upstream.requests(Endpoint.REVIEWS));
+    }
+
+    @Test
+    void injectsErrorsPerEndpoint() {
+        upstream.errorRate(Endpoint.REVIEWS, 1.0);
+
+        StepVerifier.create(new ReviewService(webClient).retrieveReviewsUsingWebClient(1L))
+                .expectError(WebClientResponseException.ServiceUnavailable.class)
+                .verify();
+        StepVerifier.create(new MovieInfoService(webClient).retrieveMovieInfoUsingWebClient(1L))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void delaysResponsesByLatencyProfile() {
+        upstream.latency(Endpoint.MOVIE_INFO, LatencyProfile.fixed(Duration.ofMillis(300)));
+
+        StepVerifier.create(new MovieInfoService(webClient).retrieveMovieInfoUsingWebClient(1L).elapsed())
+                .assertNext(elapsed -> assertTrue(elapsed.getT1() >= 300))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamsSlowlyElementByElement() {
+        upstream.slowStreaming(Endpoint.REVIEWS, Duration.ofMillis(100));
+
+        StepVerifier.create(new ReviewService(webClient).retrieveReviewsUsingWebClient(7L)
+                        .elapsed()
+                        .map(Tuple2::getT1)
+                        .collectList())
+                .assertNext(gaps -> {
+                    assertEquals(5, gaps.size());
+                    assertTrue(gaps.get(0) < 400);
+                    assertTrue(gaps.stream().mapToLong(Long::longValue).sum() >= 400);
+                })
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,136 @@
+package io.jay.reactorsamples.util;
+
+import io.jay.reactorsamples.domain.MovieInfo;
+import io.jay.reactorsamples.domain.Review;
+import io.jay.reactorsamples.service.MovieInfoService;
+import io.jay.reactorsamples.service.ReviewService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ConditionalGetCacheTests {
+
+    private static final String MOVIE_INFOS = "[{\"movieInfoId\":100,\"name\":\"Batman Begins\",\"year\":2005,"
+            + "\"cast\":[\"Christian Bale\",\"Michael Cane\"],\"release_date\":\"2005-06-15\"}]";
+
+    private final AtomicInteger bodiesSent = new AtomicInteger();
+
+    /**
+     * answers every uri with the same body and ETag, or 304 when If-None-Match matches
+     */
+    private WebClient webClient(String etag, String body) {
+        return WebClient.builder()
+                .exchangeFunction(request -> {
+                    if (etag.equals(request.headers().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+                        return Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, etag).build());
+                    }
+                    bodiesSent.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.ETAG, etag)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(body)
+                            .build());
+                })
+                .build();
+    }
+
+    @Test
+    void notModified_isServedFromDecodedCache() {
+        var cache = new ConditionalGetCache();
+        var movieInfoService = new MovieInfoService(webClient("\"v1\"", MOVIE_INFOS), cache);
+
+        var first = movieInfoService.retrieveAllMovieInfoUsingWebClient().collectList().block();
+        var second = movieInfoService.retrieveAllMovieInfoUsingWebClient().collectList().block();
+
+        assertEquals(1, first.size());
+        assertEquals("Batman Begins", first.get(0).getName());
+        assertSame(first.get(0), second.get(0));
+        assertEquals(1, bodiesSent.get());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(0.5, cache.hitRate());
+    }
+
+    @Test
+    void entriesAreKeptPerUriAndBounded() {
+        var cache = new ConditionalGetCache(1);
+        var reviewService = new ReviewService(
+                webClient("\"r1\"", "[{\"reviewId\":1,\"movieInfoId\":100,\"comment\":\"Awesome Movie\",\"rating\":8.9}]"), cache);
+
+        StepVerifier.create(reviewService.retrieveReviewsUsingWebClient(100L))
+                .expectNext(new Review(1L, 100L, "Awesome Movie", 8.9))
+                .verifyComplete();
+        StepVerifier.create(reviewService.retrieveReviewsUsingWebClient(101L))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(reviewService.retrieveReviewsUsingWebClient(100L))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(3, bodiesSent.get());
+        assertEquals(0, cache.hits());
+        assertEquals(2, cache.evictions());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void errorsAreNotCached() {
+        var cache = new ConditionalGetCache();
+        var webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()))
+                .build();
+
+        StepVerifier.create(cache.getFlux(webClient, "/v1/movie_infos", MovieInfo.class))
+                .expectError()
+                .verify();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void boundIsTotalElementCount() {
+        var cache = new ConditionalGetCache(2);
+        var twoReviews = "[{\"reviewId\":1,\"movieInfoId\":100,\"comment\":\"Awesome Movie\",\"rating\":8.9},"
+                + "{\"reviewId\":2,\"movieInfoId\":100,\"comment\":\"Excellent Movie\",\"rating\":9.0}]";
+        var reviewService = new ReviewService(webClient("\"r2\"", twoReviews), cache);
+        var movieInfoService = new MovieInfoService(webClient("\"m1\"", MOVIE_INFOS), cache);
+
+        StepVerifier.create(reviewService.retrieveReviewsUsingWebClient(100L))
+                .expectNextCount(2)
+                .verifyComplete();
+        assertEquals(2, cache.cachedElements());
+
+        StepVerifier.create(movieInfoService.retrieveAllMovieInfoUsingWebClient())
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(1, cache.evictions());
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.cachedElements());
+    }
+
+    @Test
+    void responsesWithoutETagAreStreamedAndNotCached() {
+        var cache = new ConditionalGetCache();
+        var webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(MOVIE_INFOS)
+                        .build()))
+                .build();
+
+        StepVerifier.create(cache.getFlux(webClient, "/v1/movie_infos", MovieInfo.class))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.misses());
+    }
+}
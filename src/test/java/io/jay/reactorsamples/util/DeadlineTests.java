@@ -0,0 +1,99 @@
+package io.jay.reactorsamples.util;
+
+import io.jay.reactorsamples.exception.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineTests {
+
+    @Test
+    void timeout_isANoOpWithoutDeadline() {
+        StepVerifier.withVirtualTime(() -> Deadline.timeout(Mono.delay(Duration.ofHours(1))))
+                .thenAwait(Duration.ofHours(1))
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    @Test
+    void timeout_cancelsLegsWhenTheSharedBudgetRunsOut() {
+        StepVerifier.withVirtualTime(() -> Deadline.withBudget(
+                        Deadline.timeout(Mono.delay(Duration.ofMillis(600)))
+                                .then(Deadline.timeout(Mono.delay(Duration.ofMillis(600)))),
+                        Duration.ofSeconds(1)))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectError(DeadlineExceededException.class)
+                .verify();
+    }
+
+    @Test
+    void timeout_appliesToWholeFlux() {
+        StepVerifier.withVirtualTime(() -> Deadline.withBudget(
+                        Deadline.timeout(Flux.interval(Duration.ofMillis(300))),
+                        Duration.ofSeconds(1)))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext(0L, 1L, 2L)
+                .expectError(DeadlineExceededException.class)
+                .verify();
+    }
+
+    @Test
+    void withBudget_neverExtendsAnOuterDeadline() {
+        StepVerifier.withVirtualTime(() -> Deadline.withBudget(
+                        Deadline.withBudget(Deadline.timeout(Mono.delay(Duration.ofSeconds(2))), Duration.ofSeconds(10)),
+                        Duration.ofSeconds(1)))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectError(DeadlineExceededException.class)
+                .verify();
+    }
+
+    @Test
+    void propagatingFilter_sendsRemainingBudget() {
+        var header = new AtomicReference<String>();
+        var webClient = WebClient.builder()
+                .filter(Deadline.propagatingFilter())
+                .exchangeFunction(request -> {
+                    header.set(request.headers().getFirst(Deadline.HEADER));
+                    return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+                })
+                .build();
+
+        var response = Deadline.withBudget(webClient.get().uri("/v1/movie_infos").retrieve().toBodilessEntity(), Duration.ofSeconds(5));
+
+        StepVerifier.create(response)
+                .expectNextCount(1)
+                .verifyComplete();
+        long remaining = Long.parseLong(header.get());
+        assertTrue(remaining > 0 && remaining <= 5000);
+    }
+
+    @Test
+    void propagatingFilter_doesNotSendExpiredRequests() {
+        var calls = new AtomicInteger();
+        var webClient = WebClient.builder()
+                .filter(Deadline.propagatingFilter())
+                .exchangeFunction(request -> {
+                    calls.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+                })
+                .build();
+
+        var response = Deadline.withBudget(webClient.get().uri("/v1/movie_infos").retrieve().toBodilessEntity(), Duration.ZERO);
+
+        StepVerifier.create(response)
+                .expectError(DeadlineExceededException.class)
+                .verify();
+        assertEquals(0, calls.get());
+    }
+}
@@ -0,0 +1,36 @@
+package io.jay.reactorsamples.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PooledWebClientsTests {
+
+    @AfterEach
+    void disposePool() {
+        PooledWebClients.dispose("sized-pool");
+    }
+
+    @Test
+    void builder_sharesAPoolOfTheSameSize() {
+        assertNotNull(PooledWebClients.builder("sized-pool", 4).build());
+        assertNotNull(PooledWebClients.builder("sized-pool", 4).build());
+    }
+
+    @Test
+    void builder_rejectsAnExistingPoolWithAnotherSize() {
+        PooledWebClients.builder("sized-pool", 4);
+
+        assertThrows(IllegalArgumentException.class, () -> PooledWebClients.builder("sized-pool", 8));
+    }
+
+    @Test
+    void builder_acceptsAnotherSizeOnceThePoolIsDisposed() {
+        PooledWebClients.builder("sized-pool", 4);
+        PooledWebClients.dispose("sized-pool");
+
+        assertNotNull(PooledWebClients.builder("sized-pool", 8).build());
+    }
+}
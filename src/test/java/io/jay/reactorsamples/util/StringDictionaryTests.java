@@ -0,0 +1,79 @@
+package io.jay.reactorsamples.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jay.reactorsamples.domain.MovieInfo;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class StringDictionaryTests {
+
+    @Test
+    void canonicalize_returnsSharedInstanceAndCountsHits() {
+        var dictionary = new StringDictionary(10);
+
+        var first = dictionary.canonicalize(new String("Christian Bale"));
+        var second = dictionary.canonicalize(new String("Christian Bale"));
+
+        assertSame(first, second);
+        assertEquals(0, dictionary.intern("Christian Bale"));
+        assertEquals("Christian Bale", dictionary.lookup(0));
+        assertEquals(2, dictionary.hits());
+        assertEquals(1, dictionary.misses());
+    }
+
+    @Test
+    void intern_rejectsNewStringsWhenFull() {
+        var dictionary = new StringDictionary(1);
+
+        assertEquals(0, dictionary.intern("Christian Bale"));
+        assertEquals(-1, dictionary.intern("Tom Hardy"));
+
+        var tomHardy = new String("Tom Hardy");
+        assertSame(tomHardy, dictionary.canonicalize(tomHardy));
+        assertEquals(1, dictionary.size());
+        assertEquals(2, dictionary.rejected());
+    }
+
+    @Test
+    void lookup_neverSeesAnIdBeforeItsValue() {
+        var dictionary = new StringDictionary(20_000);
+        var unpublished = new AtomicInteger();
+
+        Flux.range(0, 20_000)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .doOnNext(i -> {
+                    dictionary.intern("cast-" + i);
+                    int size = dictionary.size();
+                    if (dictionary.lookup(size - 1) == null) {
+                        unpublished.incrementAndGet();
+                    }
+                })
+                .sequential()
+                .blockLast();
+
+        assertEquals(0, unpublished.get());
+        assertEquals(20_000, dictionary.size());
+    }
+
+    @Test
+    void movieInfoDecoding_sharesCastNames() throws Exception {
+        var objectMapper = new ObjectMapper().findAndRegisterModules();
+        var json = "{\"movieInfoId\":1,\"name\":\"Batman Begins\",\"year\":2005," +
+                "\"cast\":[\"Christian Bale\",\"Michael Cane\"],\"release_date\":\"2005-06-15\"}";
+
+        var first = objectMapper.readValue(json, MovieInfo.class);
+        var second = objectMapper.readValue(json, MovieInfo.class);
+
+        assertEquals(first, second);
+        assertSame(first.getCast().get(0), second.getCast().get(0));
+        assertNotSame(first.getName(), second.getName());
+    }
+}
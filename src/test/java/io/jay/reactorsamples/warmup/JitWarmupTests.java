@@ -0,0 +1,60 @@
+package io.jay.reactorsamples.warmup;
+
+import io.jay.reactorsamples.service.MovieInfoService;
+import io.jay.reactorsamples.service.MovieReactiveService;
+import io.jay.reactorsamples.service.ReviewService;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JitWarmupTests {
+
+    private MovieReactiveService movieReactiveService = new MovieReactiveService(new MovieInfoService(), new ReviewService());
+
+    @Test
+    void run_stopsOnceCompilationIsQuiet() {
+        var warmup = new JitWarmup(List.of(() -> movieReactiveService.getMovieById(100L)),
+                Duration.ofSeconds(30), Duration.ofMillis(10), Long.MAX_VALUE, 2);
+        assertNull(warmup.lastResult());
+
+        StepVerifier.create(warmup.run())
+                .assertNext(result -> {
+                    assertTrue(result.isStabilized());
+                    assertTrue(result.getIterations() > 0);
+                    assertTrue(result.getDuration().compareTo(Duration.ofSeconds(30)) < 0);
+                })
+                .verifyComplete();
+        assertTrue(warmup.lastResult().isStabilized());
+    }
+
+    @Test
+    void run_stopsWhenBudgetExpires() {
+        var warmup = new JitWarmup(List.of(() -> movieReactiveService.getMovieByIdWithReviewSummary(101L)),
+                Duration.ofMillis(200), Duration.ofMillis(10), -1, 2);
+
+        StepVerifier.create(warmup.run())
+                .assertNext(result -> {
+                    assertFalse(result.isStabilized());
+                    assertTrue(result.getDuration().compareTo(Duration.ofMillis(200)) >= 0);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void run_failsWhenScenarioFails() {
+        var warmup = new JitWarmup(List.of(() -> Mono.error(new IllegalStateException("boom"))),
+                Duration.ofSeconds(1));
+
+        StepVerifier.create(warmup.run())
+                .expectErrorMessage("boom")
+                .verify();
+        assertNull(warmup.lastResult());
+    }
+}